@@ -4,44 +4,80 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.State;
+import ru.practicum.shareit.client.AsyncServerClient;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.PassthroughProperties;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final ResponseCache responseCache;
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory serverRequestFactory, AsyncServerClient async,
+                      PassthroughProperties passthrough, ResponseCache responseCache) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build()
+                .requestFactory(() -> serverRequestFactory)
+                .build(),
+                async,
+                passthrough
         );
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> createBooking(BookingDtoRequest dto, Long userId) {
-        return post("", userId, dto);
+    // a booking changes the last and next booking shown with its item
+    public CompletableFuture<ResponseEntity<Object>> createBooking(BookingDtoRequest dto, Long userId) {
+        return post("", userId, dto).whenComplete((response, error) ->
+                responseCache.invalidate(ItemClient.ITEM_ROUTE, String.valueOf(dto.getItemId())));
     }
 
-    public ResponseEntity<Object> approveBooking(Long userId, Long bookingId, Boolean approved) {
-        return patch("/" + bookingId + "?approved=" + approved, userId, null);
+    public CompletableFuture<ResponseEntity<Object>> approveBooking(Long userId, Long bookingId, Boolean approved) {
+        return patch("/" + bookingId + "?approved=" + approved, userId, null).whenComplete((response, error) -> {
+            if (response != null) {
+                responseCache.readId(response, "/item/id").ifPresent(itemId ->
+                        responseCache.invalidate(ItemClient.ITEM_ROUTE, String.valueOf(itemId)));
+            }
+        });
     }
 
-    public ResponseEntity<Object> getById(Long bookingId, Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getById(Long bookingId, Long userId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getAllByUser(Long userId, State state) {
-        return get("?state=" + state, userId);
+    public CompletableFuture<ResponseEntity<Object>> getAllByUser(
+            Long userId, State state, String cursor, Integer size) {
+        return getPage("", userId, state, cursor, size);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getAllByUserItems(
+            Long userId, State state, String cursor, Integer size) {
+        return getPage("/owner", userId, state, cursor, size);
     }
 
-    public ResponseEntity<Object> getAllByUserItems(Long userId, State state) {
-        return get("/owner?state=" + state, userId);
+    private CompletableFuture<ResponseEntity<Object>> getPage(
+            String path, Long userId, State state, String cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("size", size);
+        if (cursor == null) {
+            return get(path + "?state={state}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get(path + "?state={state}&size={size}&cursor={cursor}", userId, parameters);
     }
 }
\ No newline at end of file
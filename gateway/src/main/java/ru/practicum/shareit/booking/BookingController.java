@@ -1,6 +1,8 @@
 package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
@@ -15,6 +17,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.State;
 
+import java.util.concurrent.CompletableFuture;
+
 @Controller
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
@@ -24,32 +28,41 @@ public class BookingController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@Valid @RequestBody BookingDtoRequest dto,
-                                                @RequestHeader(USER_ID_HEADER) Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> createBooking(@Valid @RequestBody BookingDtoRequest dto,
+                                                                   @RequestHeader(USER_ID_HEADER) Long userId) {
         return bookingClient.createBooking(dto, userId);
     }
 
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader(USER_ID_HEADER) Long userId, @PathVariable Long bookingId,
-                                                 @RequestParam Boolean approved) {
+    public CompletableFuture<ResponseEntity<Object>> approveBooking(
+            @RequestHeader(USER_ID_HEADER) Long userId, @PathVariable Long bookingId,
+            @RequestParam Boolean approved) {
         return bookingClient.approveBooking(userId, bookingId, approved);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@PathVariable Long bookingId,
-                                                 @RequestHeader(USER_ID_HEADER) Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getBookingById(@PathVariable Long bookingId,
+                                                                    @RequestHeader(USER_ID_HEADER) Long userId) {
         return bookingClient.getById(bookingId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookingsByUserId(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                      @RequestParam(name = "state", defaultValue = "ALL") State state) {
-        return bookingClient.getAllByUser(userId, state);
+    public CompletableFuture<ResponseEntity<Object>> getBookingsByUserId(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestParam(name = "state", defaultValue = "ALL") State state,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "50")
+            @Positive @Max(500) Integer size) {
+        return bookingClient.getAllByUser(userId, state, cursor, size);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getBookingsByUserItems(@RequestHeader(USER_ID_HEADER) Long userId,
-                                                         @RequestParam(name = "state", defaultValue = "ALL") State state) {
-        return bookingClient.getAllByUserItems(userId, state);
+    public CompletableFuture<ResponseEntity<Object>> getBookingsByUserItems(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestParam(name = "state", defaultValue = "ALL") State state,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "50")
+            @Positive @Max(500) Integer size) {
+        return bookingClient.getAllByUserItems(userId, state, cursor, size);
     }
 }
\ No newline at end of file
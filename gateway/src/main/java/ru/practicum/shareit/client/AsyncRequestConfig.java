@@ -0,0 +1,25 @@
+package ru.practicum.shareit.client;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Requests answered by the non-blocking client stay open until the server call completes. Their timeout is
+ * the longest the call itself may take, so the client's own timeout always ends the request first and the
+ * caller gets the client's error instead of a bare 503 from the container.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class AsyncRequestConfig implements WebMvcConfigurer {
+
+    private static final long TIMEOUT_MARGIN_MILLIS = 1_000;
+
+    private final ServerConnectionProperties connections;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(connections.exchangeTimeout().toMillis() + TIMEOUT_MARGIN_MILLIS);
+    }
+}
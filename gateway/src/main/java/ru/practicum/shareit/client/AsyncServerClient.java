@@ -0,0 +1,177 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.async.methods.SimpleHttpRequest;
+import org.apache.hc.client5.http.async.methods.SimpleHttpResponse;
+import org.apache.hc.client5.http.async.methods.SimpleRequestBuilder;
+import org.apache.hc.client5.http.impl.async.CloseableHttpAsyncClient;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.concurrent.FutureCallback;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.RequestNotExecutedException;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Sends gateway requests to the server without holding a thread while the server works. The number of
+ * requests in flight is bounded by {@code shareit-server.max-in-flight}; above it the gateway answers
+ * 503 at once instead of queueing, so callers feel the pressure rather than piling up on the gateway.
+ * Error responses carry the server's body as bytes, like {@code HttpStatusCodeException} on the blocking
+ * path. Other bodies are passed on as bytes too with {@code shareit-server.passthrough}, or parsed as JSON
+ * without it. A request that failed on a pooled connection the server had already
+ * closed never reached the server and is sent again on another connection, whatever its method.
+ */
+@Slf4j
+@Component
+public class AsyncServerClient implements DisposableBean {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final CloseableHttpAsyncClient client;
+    private final Semaphore inFlight;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final boolean passthrough;
+
+    public AsyncServerClient(ObjectMapper objectMapper,
+                             @Value("${shareit-server.non-blocking:true}") boolean enabled,
+                             @Value("${shareit-server.max-in-flight:1000}") int maxInFlight,
+                             ServerConnectionProperties connections, PassthroughProperties passthrough,
+                             MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.passthrough = passthrough.isPassthrough();
+        this.inFlight = new Semaphore(maxInFlight);
+        // every request in flight may hold a connection, so the pool is sized by max-in-flight and never queues
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxInFlight)
+                .setMaxConnPerRoute(maxInFlight)
+                .setDefaultConnectionConfig(connections.connectionConfig())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "non-blocking").bindTo(meterRegistry);
+        this.client = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(connections.requestConfig())
+                .setIOReactorConfig(IOReactorConfig.custom()
+                        .setSoKeepAlive(connections.isTcpKeepAlive())
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(connections.evictIdleAfter())
+                .build();
+        if (enabled) {
+            client.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> exchange(HttpMethod method, URI uri, HttpHeaders headers,
+                                                              @Nullable Object body) {
+        if (!inFlight.tryAcquire()) {
+            log.warn("Превышено число одновременных запросов к серверу, {} {} отклонён", method, uri);
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+        }
+        SimpleHttpRequest request;
+        try {
+            request = toRequest(method, uri, headers, body);
+        } catch (JsonProcessingException e) {
+            inFlight.release();
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<ResponseEntity<Object>> result = new CompletableFuture<>();
+        execute(request, result, MAX_ATTEMPTS);
+        return result;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        client.close();
+    }
+
+    private void execute(SimpleHttpRequest request, CompletableFuture<ResponseEntity<Object>> result,
+                         int attemptsLeft) {
+        client.execute(request, new FutureCallback<>() {
+            @Override
+            public void completed(SimpleHttpResponse response) {
+                inFlight.release();
+                try {
+                    result.complete(toResponseEntity(response));
+                } catch (IOException e) {
+                    result.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void failed(Exception e) {
+                // the pooled connection was closed by the server before the request was written
+                if (e instanceof RequestNotExecutedException && attemptsLeft > 1) {
+                    log.debug("Соединение с сервером закрыто до отправки {} {}, повтор", request.getMethod(),
+                            request.getRequestUri());
+                    execute(request, result, attemptsLeft - 1);
+                    return;
+                }
+                inFlight.release();
+                result.completeExceptionally(e);
+            }
+
+            @Override
+            public void cancelled() {
+                inFlight.release();
+                result.cancel(false);
+            }
+        });
+    }
+
+    private SimpleHttpRequest toRequest(HttpMethod method, URI uri, HttpHeaders headers, @Nullable Object body)
+            throws JsonProcessingException {
+        SimpleRequestBuilder builder = SimpleRequestBuilder.create(method.name()).setUri(uri);
+        headers.forEach((name, values) -> {
+            if (!HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                values.forEach(value -> builder.addHeader(name, value));
+            }
+        });
+        if (body != null) {
+            builder.setBody(objectMapper.writeValueAsBytes(body), ContentType.APPLICATION_JSON);
+        }
+        return builder.build();
+    }
+
+    private ResponseEntity<Object> toResponseEntity(SimpleHttpResponse response) throws IOException {
+        HttpStatusCode status = HttpStatusCode.valueOf(response.getCode());
+        byte[] body = response.getBodyBytes();
+        if (status.isError()) {
+            return ResponseEntity.status(status).body(body);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        for (Header header : response.getHeaders()) {
+            headers.add(header.getName(), header.getValue());
+        }
+        if (body == null || body.length == 0) {
+            return ResponseEntity.status(status).headers(headers).build();
+        }
+        Object payload = passthrough ? body : objectMapper.readValue(body, Object.class);
+        return ResponseEntity.status(status).headers(headers).body(payload);
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * With {@code passthrough} server responses are copied to the caller as bytes with their content type;
+ * without it they are parsed as JSON and written again. Applies to the blocking and the non-blocking client.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server")
+public class PassthroughProperties {
+
+    private boolean passthrough = true;
+}
@@ -0,0 +1,213 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Responses of hot read routes kept in the gateway. A response younger than its route's TTL is served as is;
+ * an older one is served for the stale-while-revalidate window while one request revalidates it in the
+ * background, with its ETag when the server sent one. Concurrent misses of a key share one server call.
+ * Writes passing through this gateway drop what they change once the server has answered them; writes
+ * through other gateway instances are seen when the entries expire.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+public class ResponseCache implements DisposableBean {
+
+    // weight of a body the gateway holds parsed rather than as bytes
+    private static final int PARSED_BODY_WEIGHT = 4096;
+
+    private final Map<String, ResponseCacheProperties.Route> routes;
+    private final ObjectMapper objectMapper;
+    private final AsyncCache<Key, Entry> cache;
+    // revalidations run off the request thread, which the blocking client would otherwise hold
+    private final ExecutorService revalidator = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "response-cache-revalidator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ResponseCache(ResponseCacheProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.routes = properties.getRoutes();
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((Key key, Entry entry) -> entry.weight())
+                .expireAfter(new Expiry<Key, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                        return entry.route.getTtl().plus(entry.route.getStaleWhileRevalidate()).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, entry, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gateway.responses");
+    }
+
+    /**
+     * Answers a GET of {@code route} from the cache, calling {@code fetch} with the If-None-Match to send
+     * on a miss or revalidation. A caller whose If-None-Match matches the cached ETag gets 304.
+     */
+    public CompletableFuture<ResponseEntity<Object>> get(String route, String key, @Nullable String ifNoneMatch,
+            Function<String, CompletableFuture<ResponseEntity<Object>>> fetch) {
+        ResponseCacheProperties.Route settings = routes.get(route);
+        if (settings == null) {
+            return fetch.apply(ifNoneMatch);
+        }
+        Key cacheKey = new Key(route, key);
+        CompletableFuture<Entry> entry = cache.get(cacheKey, (k, executor) ->
+                fetch.apply(null).thenApply(response -> new Entry(settings, response)));
+        if (entry.isDone() && !entry.isCompletedExceptionally()) {
+            Entry cached = entry.join();
+            if (cached.isStale()) {
+                revalidate(cacheKey, entry, cached, fetch);
+            }
+        }
+        return entry.thenApply(cached -> {
+            if (!cached.isCacheable()) {
+                cache.asMap().remove(cacheKey, entry);
+            }
+            return cached.answer(ifNoneMatch);
+        });
+    }
+
+    public void invalidate(String route, String key) {
+        cache.synchronous().invalidate(new Key(route, key));
+    }
+
+    public void invalidateRoute(String route) {
+        cache.asMap().keySet().removeIf(key -> key.route.equals(route));
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    /**
+     * Reads a number at {@code pointer} in a JSON response body, such as the item of a booking.
+     */
+    public Optional<Long> readId(ResponseEntity<Object> response, String pointer) {
+        if (!response.getStatusCode().is2xxSuccessful() || !response.hasBody()) {
+            return Optional.empty();
+        }
+        try {
+            JsonNode body = response.getBody() instanceof byte[] bytes
+                    ? objectMapper.readTree(bytes)
+                    : objectMapper.valueToTree(response.getBody());
+            JsonNode id = body.at(pointer);
+            return id.canConvertToLong() ? Optional.of(id.asLong()) : Optional.empty();
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        revalidator.shutdownNow();
+    }
+
+    private void revalidate(Key key, CompletableFuture<Entry> current, Entry entry,
+                            Function<String, CompletableFuture<ResponseEntity<Object>>> fetch) {
+        if (!entry.revalidating.compareAndSet(false, true)) {
+            return;
+        }
+        CompletableFuture.supplyAsync(() -> fetch.apply(entry.eTag()), revalidator)
+                .thenCompose(Function.identity())
+                .whenComplete((response, error) -> {
+                    if (error != null || response.getStatusCode().is5xxServerError()) {
+                        log.debug("Ответ {} {} не обновлён, отдаётся сохранённый", key.route, key.key, error);
+                        entry.revalidating.set(false);
+                        return;
+                    }
+                    Entry refreshed = response.getStatusCode() == HttpStatus.NOT_MODIFIED
+                            ? new Entry(entry.route, entry.response)
+                            : new Entry(entry.route, response);
+                    // a write may have dropped the entry meanwhile; the answer must not bring it back
+                    if (refreshed.isCacheable()) {
+                        cache.asMap().replace(key, current, CompletableFuture.completedFuture(refreshed));
+                    } else {
+                        cache.asMap().remove(key, current);
+                    }
+                });
+    }
+
+    private record Key(String route, String key) {
+    }
+
+    private static final class Entry {
+        final ResponseCacheProperties.Route route;
+        final ResponseEntity<Object> response;
+        final long fetchedAt = System.nanoTime();
+        final AtomicBoolean revalidating = new AtomicBoolean();
+
+        Entry(ResponseCacheProperties.Route route, ResponseEntity<Object> response) {
+            this.route = route;
+            this.response = response;
+        }
+
+        boolean isCacheable() {
+            return response.getStatusCode() == HttpStatus.OK;
+        }
+
+        boolean isStale() {
+            return System.nanoTime() - fetchedAt >= route.getTtl().toNanos();
+        }
+
+        @Nullable
+        String eTag() {
+            return response.getHeaders().getETag();
+        }
+
+        int weight() {
+            return response.getBody() instanceof byte[] bytes ? bytes.length : PARSED_BODY_WEIGHT;
+        }
+
+        ResponseEntity<Object> answer(@Nullable String ifNoneMatch) {
+            String eTag = eTag();
+            if (ifNoneMatch == null || eTag == null || !isCacheable()) {
+                return response;
+            }
+            String strong = eTag.replaceFirst("^W/", "");
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || tag.replaceFirst("^W/", "").equals(strong)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).header(HttpHeaders.ETAG, eTag).build();
+                }
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read routes whose responses the gateway keeps, by route name. A response is served as is for {@code ttl},
+ * then for {@code staleWhileRevalidate} more while it is being revalidated; routes without settings are
+ * not cached. {@code maxSize} bounds the bodies of all routes together.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-gateway.cache")
+public class ResponseCacheProperties {
+
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+    private Map<String, Route> routes = new HashMap<>();
+
+    @Data
+    public static class Route {
+        private Duration ttl = Duration.ofSeconds(5);
+        private Duration staleWhileRevalidate = Duration.ZERO;
+    }
+}
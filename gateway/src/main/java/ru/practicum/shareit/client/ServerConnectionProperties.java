@@ -0,0 +1,58 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Connections from the gateway to the server, shared by the blocking and the non-blocking client.
+ * {@code keepAlive} should stay below the server's keep-alive timeout, so that the gateway drops an idle
+ * connection before the server closes it under a request; {@code evictIdleAfter} closes connections
+ * idle that long in the background. {@code maxTotal} and {@code maxPerRoute} apply to the blocking pool only;
+ * the non-blocking pool is sized by {@code shareit-server.max-in-flight}.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.connections")
+public class ServerConnectionProperties {
+
+    private int maxTotal = 200;
+    private int maxPerRoute = 200;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(5);
+    private Duration responseTimeout = Duration.ofSeconds(30);
+    private Duration keepAlive = Duration.ofSeconds(50);
+    private Duration evictIdleAfter = Duration.ofSeconds(30);
+    private boolean tcpKeepAlive = true;
+
+    public ConnectionConfig connectionConfig() {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout))
+                .setSocketTimeout(Timeout.of(responseTimeout))
+                .build();
+    }
+
+    public RequestConfig requestConfig() {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                .setResponseTimeout(Timeout.of(responseTimeout))
+                .setConnectionKeepAlive(TimeValue.of(keepAlive))
+                .build();
+    }
+
+    /**
+     * Longest a server call can take before the client gives up on it: waiting for a pooled connection,
+     * connecting and waiting for the response.
+     */
+    public Duration exchangeTimeout() {
+        return connectionRequestTimeout.plus(connectTimeout).plus(responseTimeout);
+    }
+
+    public TimeValue evictIdleAfter() {
+        return TimeValue.of(evictIdleAfter);
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+/**
+ * One connection pool for the RestTemplate of every gateway client, instead of a default pool of five
+ * connections per client. Pool sizes, connections and leases are exported as
+ * {@code httpcomponents.httpclient.pool.*} metrics tagged {@code httpclient=blocking}.
+ */
+@Configuration
+@EnableConfigurationProperties({ServerConnectionProperties.class, PassthroughProperties.class})
+public class ServerHttpClientConfig {
+
+    @Bean
+    public PoolingHttpClientConnectionManager serverConnectionManager(ServerConnectionProperties properties,
+                                                                      MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.getMaxTotal())
+                .setMaxConnPerRoute(properties.getMaxPerRoute())
+                .setDefaultConnectionConfig(properties.connectionConfig())
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setSoKeepAlive(properties.isTcpKeepAlive())
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "blocking").bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean
+    public ClientHttpRequestFactory serverRequestFactory(PoolingHttpClientConnectionManager serverConnectionManager,
+                                                         ServerConnectionProperties properties) {
+        return new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setConnectionManager(serverConnectionManager)
+                .setDefaultRequestConfig(properties.requestConfig())
+                .evictExpiredConnections()
+                .evictIdleConnections(properties.evictIdleAfter())
+                .build());
+    }
+}
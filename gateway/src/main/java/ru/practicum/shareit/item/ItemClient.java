@@ -4,52 +4,110 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.AsyncServerClient;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.PassthroughProperties;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class ItemClient extends BaseClient {
 
+    public static final String ITEM_ROUTE = "item";
+    public static final String SEARCH_ROUTE = "search";
     private static final String API_PREFIX = "/items";
 
+    private final ResponseCache responseCache;
+
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory serverRequestFactory, AsyncServerClient async,
+                      PassthroughProperties passthrough, ResponseCache responseCache) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build()
+                .requestFactory(() -> serverRequestFactory)
+                .build(),
+                async,
+                passthrough
         );
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> getItemsByOwnerId(Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getItemsByOwnerId(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getItemById(Long itemId) {
-        return get("/" + itemId);
+    public CompletableFuture<ResponseEntity<Object>> getItemById(Long itemId, String ifNoneMatch) {
+        return responseCache.get(ITEM_ROUTE, String.valueOf(itemId), ifNoneMatch,
+                eTag -> conditionalGet("/" + itemId, null, eTag));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getItemAvailability(
+            Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", null, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getItemByText(String text, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "from", from,
+                "size", size
+        );
+        String path = "/search?text={text}&from={from}&size={size}";
+        return responseCache.get(SEARCH_ROUTE, expand(path, parameters).toString(), null,
+                eTag -> conditionalGet(path, null, parameters, eTag));
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> getFreeItemsByText(
+            String text, LocalDateTime start, LocalDateTime end,
+            Integer from, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("start", start);
+        parameters.put("end", end);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        // free items change with every booking, possibly made through another gateway, so they are not cached
+        return get("/search?text={text}&start={start}&end={end}&from={from}&size={size}", null, parameters);
+    }
+
+    public CompletableFuture<ResponseEntity<Object>> createItem(ItemDtoRequest dto, Long userId) {
+        return post("", userId, dto).whenComplete((response, error) -> responseCache.invalidateRoute(SEARCH_ROUTE));
     }
 
-    public ResponseEntity<Object> getItemByText(String text) {
-        return get("/search?text=" + text);
+    public CompletableFuture<ResponseEntity<Object>> createItems(List<ItemDtoRequest> dtos, Long userId) {
+        return post("/batch", userId, dtos).whenComplete((response, error) -> responseCache.invalidateRoute(SEARCH_ROUTE));
     }
 
-    public ResponseEntity<Object> createItem(ItemDtoRequest dto, Long userId) {
-        return post("", userId, dto);
+    public CompletableFuture<ResponseEntity<Object>> addComment(CommentDtoRequest dto, Long itemId, Long userId) {
+        return post("/" + itemId + "/comment", userId, dto)
+                .whenComplete((response, error) -> responseCache.invalidate(ITEM_ROUTE, String.valueOf(itemId)));
     }
 
-    public ResponseEntity<Object> addComment(CommentDtoRequest dto, Long itemId, Long userId) {
-        return post("/" + itemId + "/comment", userId, dto);
+    public CompletableFuture<ResponseEntity<Object>> updateItem(ItemDtoRequest dto, Long itemId, Long userId) {
+        return patch("/" + itemId, userId, dto).whenComplete((response, error) -> invalidateItem(itemId));
     }
 
-    public ResponseEntity<Object> updateItem(ItemDtoRequest dto, Long itemId, Long userId) {
-        return patch("/" + itemId, userId, dto);
+    public CompletableFuture<Void> deleteItem(Long itemId) {
+        return delete("", itemId).whenComplete((response, error) -> invalidateItem(itemId));
     }
 
-    public void deleteItem(Long itemId) {
-        delete("", itemId);
+    private void invalidateItem(Long itemId) {
+        responseCache.invalidate(ITEM_ROUTE, String.valueOf(itemId));
+        responseCache.invalidateRoute(SEARCH_ROUTE);
     }
 }
\ No newline at end of file
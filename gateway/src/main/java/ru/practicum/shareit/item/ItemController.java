@@ -1,7 +1,14 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,6 +23,10 @@ import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
@@ -23,42 +34,80 @@ public class ItemController {
 
     private final ItemClient itemClient;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    // the server rejects larger batches with the same limit, see ItemServiceImpl.MAX_BATCH_SIZE
+    private static final int MAX_BATCH_SIZE = 5000;
 
     @GetMapping
-    public ResponseEntity<Object> getItemsByOwnerId(@RequestHeader(USER_ID_HEADER) Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getItemsByOwnerId(@RequestHeader(USER_ID_HEADER) Long userId) {
         return itemClient.getItemsByOwnerId(userId);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> getItemByI(@PathVariable Long id) {
-        return itemClient.getItemById(id);
+    public CompletableFuture<ResponseEntity<Object>> getItemByI(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemClient.getItemById(id, ifNoneMatch);
+    }
+
+    @GetMapping("/{id}/availability")
+    public CompletableFuture<ResponseEntity<Object>> getItemAvailability(
+            @PathVariable Long id,
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime from,
+            @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime to) {
+        return itemClient.getItemAvailability(id, from, to);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getItemByText(@RequestParam("text") String text) {
-        return itemClient.getItemByText(text);
+    public CompletableFuture<ResponseEntity<Object>> getItemByText(@RequestParam("text") String text,
+                                                                   @RequestParam(name = "start", required = false)
+                                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                                   LocalDateTime start,
+                                                                   @RequestParam(name = "end", required = false)
+                                                                   @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                                   LocalDateTime end,
+                                                                   @RequestParam(name = "from", defaultValue = "0")
+                                                                   @PositiveOrZero Integer from,
+                                                                   @RequestParam(name = "size", defaultValue = "50")
+                                                                   @Positive @Max(500) Integer size) {
+        if (start == null && end == null) {
+            return itemClient.getItemByText(text, from, size);
+        }
+        return itemClient.getFreeItemsByText(text, start, end, from, size);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@Valid @RequestBody ItemDtoRequest dto,
-                                             @RequestHeader(USER_ID_HEADER) Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> createItem(@Valid @RequestBody ItemDtoRequest dto,
+                                                                @RequestHeader(USER_ID_HEADER) Long userId) {
         return itemClient.createItem(dto, userId);
     }
 
+    @PostMapping("/batch")
+    public CompletableFuture<ResponseEntity<Object>> createItems(
+            @RequestBody @NotEmpty @Size(max = MAX_BATCH_SIZE) List<ItemDtoRequest> dtos,
+            @RequestHeader(USER_ID_HEADER) Long userId) {
+        return itemClient.createItems(dtos, userId);
+    }
+
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@Valid @RequestBody CommentDtoRequest dto, @PathVariable Long itemId,
-                                             @RequestHeader(USER_ID_HEADER) Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> addComment(
+            @Valid @RequestBody CommentDtoRequest dto, @PathVariable Long itemId,
+            @RequestHeader(USER_ID_HEADER) Long userId) {
         return itemClient.addComment(dto, itemId, userId);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateItem(@RequestBody ItemDtoRequest newItem, @PathVariable("id") Long id,
-                                             @RequestHeader(USER_ID_HEADER) Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> updateItem(
+            @RequestBody ItemDtoRequest newItem, @PathVariable("id") Long id,
+            @RequestHeader(USER_ID_HEADER) Long userId) {
         return itemClient.updateItem(newItem, id, userId);
     }
 
     @DeleteMapping("/{id}")
-    public void deleteItem(@PathVariable("id") Long id) {
-        itemClient.deleteItem(id);
+    public CompletableFuture<Void> deleteItem(@PathVariable("id") Long id) {
+        return itemClient.deleteItem(id);
     }
 }
\ No newline at end of file
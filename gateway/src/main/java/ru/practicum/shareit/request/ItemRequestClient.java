@@ -4,12 +4,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.AsyncServerClient;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.PassthroughProperties;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRequest;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 
 @Service
 public class ItemRequestClient extends BaseClient {
@@ -17,28 +23,38 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory serverRequestFactory, AsyncServerClient async,
+                      PassthroughProperties passthrough) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build()
+                .requestFactory(() -> serverRequestFactory)
+                .build(),
+                async,
+                passthrough
         );
     }
 
-    public ResponseEntity<Object> createRequest(ItemRequestDtoRequest dto, Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> createRequest(ItemRequestDtoRequest dto, Long userId) {
         return post("", userId, dto);
     }
 
-    public ResponseEntity<Object> getRequestsByRequestorId(Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getRequestsByRequestorId(Long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(Long userId) {
-        return get("/all", userId);
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(Long userId, String cursor, Integer size) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("size", size);
+        if (cursor == null) {
+            return get("/all?size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get("/all?size={size}&cursor={cursor}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getRequestById(Long requestId, Long userId) {
-        return get("/" + requestId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getRequestById(Long requestId, Long userId, String ifNoneMatch) {
+        return conditionalGet("/" + requestId, userId, ifNoneMatch);
     }
 }
 
@@ -1,7 +1,10 @@
 package ru.practicum.shareit.request;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -9,9 +12,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRequest;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
@@ -21,24 +27,31 @@ public class ItemRequestController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@Valid @RequestBody ItemRequestDtoRequest dto,
-                                                @RequestHeader(USER_ID_HEADER) Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> createRequest(@Valid @RequestBody ItemRequestDtoRequest dto,
+                                                                   @RequestHeader(USER_ID_HEADER) Long userId) {
         return itemRequestClient.createRequest(dto, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getRequestsByRequestorId(@RequestHeader(USER_ID_HEADER) Long userId) {
+    public CompletableFuture<ResponseEntity<Object>> getRequestsByRequestorId(
+            @RequestHeader(USER_ID_HEADER) Long userId) {
         return itemRequestClient.getRequestsByRequestorId(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader(USER_ID_HEADER) Long userId) {
-        return itemRequestClient.getAllRequests(userId);
+    public CompletableFuture<ResponseEntity<Object>> getAllRequests(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "size", defaultValue = "50")
+            @Positive @Max(500) Integer size) {
+        return itemRequestClient.getAllRequests(userId, cursor, size);
     }
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@PathVariable("requestId") Long requestId,
-                                                 @RequestHeader(USER_ID_HEADER) Long userId) {
-        return itemRequestClient.getRequestById(requestId, userId);
+    public CompletableFuture<ResponseEntity<Object>> getRequestById(
+            @PathVariable("requestId") Long requestId,
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemRequestClient.getRequestById(requestId, userId, ifNoneMatch);
     }
 }
\ No newline at end of file
@@ -4,44 +4,57 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.client.AsyncServerClient;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.PassthroughProperties;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.util.concurrent.CompletableFuture;
+
 
 @Service
 public class UserClient extends BaseClient {
 
     private static final String API_PREFIX = "/users";
 
+    private final ResponseCache responseCache;
+
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory serverRequestFactory, AsyncServerClient async,
+                      PassthroughProperties passthrough, ResponseCache responseCache) {
         super(builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                .build()
+                .requestFactory(() -> serverRequestFactory)
+                .build(),
+                async,
+                passthrough
         );
+        this.responseCache = responseCache;
     }
 
-    public ResponseEntity<Object> getUsers() {
+    public CompletableFuture<ResponseEntity<Object>> getUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> getUserById(Long userId) {
-        return get("/" + userId);
+    public CompletableFuture<ResponseEntity<Object>> getUserById(Long userId, String ifNoneMatch) {
+        return conditionalGet("/" + userId, null, ifNoneMatch);
     }
 
-    public ResponseEntity<Object> createUser(UserDto dto) {
+    public CompletableFuture<ResponseEntity<Object>> createUser(UserDto dto) {
         return post("", dto);
     }
 
-    public ResponseEntity<Object> updateUser(UserDto dto, Long userId) {
-        return patch("/" + userId, dto);
+    // user names appear in the bookings and comments of any item, and a deleted user's items disappear
+    public CompletableFuture<ResponseEntity<Object>> updateUser(UserDto dto, Long userId) {
+        return patch("/" + userId, dto).whenComplete((response, error) -> responseCache.invalidateAll());
     }
 
-    public void deleteUser(Long userId) {
-        delete("", userId);
+    public CompletableFuture<Void> deleteUser(Long userId) {
+        return delete("", userId).whenComplete((response, error) -> responseCache.invalidateAll());
     }
 }
\ No newline at end of file
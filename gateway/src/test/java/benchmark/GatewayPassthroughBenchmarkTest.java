@@ -0,0 +1,123 @@
+package benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItGateway;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.StringJoiner;
+
+/**
+ * Proxies a page of 500 bookings through the gateway with server responses parsed into maps and written
+ * back by Jackson, and with the server's bytes passed through, on both the blocking and the non-blocking path.
+ * Allocations are counted over all platform threads of the JVM, so the stub server and the caller are included
+ * in every run alike. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@Slf4j
+public class GatewayPassthroughBenchmarkTest {
+
+    static final int BOOKINGS = 500;
+    static final int WARMUP_REQUESTS = 500;
+    static final int ITERATIONS = 2000;
+
+    @Test
+    void benchmarkPassthroughAgainstParsing() throws Exception {
+        byte[] bookings = bookingsJson();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bookings.length);
+            exchange.getResponseBody().write(bookings);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String serverUrl = "http://localhost:" + server.getAddress().getPort();
+            Result blockingParsed = run(serverUrl, false, false);
+            Result blockingPassthrough = run(serverUrl, false, true);
+            Result nonBlockingParsed = run(serverUrl, true, false);
+            Result nonBlockingPassthrough = run(serverUrl, true, true);
+            log.info("{} бронирований в ответе, {} байт", BOOKINGS, bookings.length);
+            log.info("блокирующий, разбор JSON: {}", blockingParsed);
+            log.info("блокирующий, передача байтов: {}", blockingPassthrough);
+            log.info("неблокирующий, разбор JSON: {}", nonBlockingParsed);
+            log.info("неблокирующий, передача байтов: {}", nonBlockingPassthrough);
+
+            Assertions.assertThat(blockingPassthrough.body).isEqualTo(bookings);
+            Assertions.assertThat(nonBlockingPassthrough.body).isEqualTo(bookings);
+            Assertions.assertThat(blockingPassthrough.allocatedPerRequest).isLessThan(blockingParsed.allocatedPerRequest);
+            Assertions.assertThat(nonBlockingPassthrough.allocatedPerRequest)
+                    .isLessThan(nonBlockingParsed.allocatedPerRequest);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private Result run(String serverUrl, boolean nonBlocking, boolean passthrough) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--server.port=0",
+                        "--shareit-server.url=" + serverUrl,
+                        "--shareit-server.non-blocking=" + nonBlocking,
+                        "--shareit-server.passthrough=" + passthrough,
+                        "--spring.threads.virtual.enabled=false",
+                        "--logging.level.org.springframework.web.client.RestTemplate=INFO");
+             HttpClient client = HttpClient.newHttpClient()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpRequest request = HttpRequest.newBuilder(
+                            URI.create("http://localhost:" + port + "/bookings?size=" + BOOKINGS))
+                    .header("X-Sharer-User-Id", "1")
+                    .build();
+            for (int i = 0; i < WARMUP_REQUESTS; i++) {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            }
+
+            com.sun.management.ThreadMXBean threads =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+            long start = System.nanoTime();
+            byte[] body = null;
+            for (int i = 0; i < ITERATIONS; i++) {
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                Assertions.assertThat(response.statusCode()).isEqualTo(200);
+                body = response.body();
+            }
+            long elapsed = System.nanoTime() - start;
+            long allocated = threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+            return new Result(allocated / ITERATIONS, elapsed / ITERATIONS / 1_000, body);
+        }
+    }
+
+    private static byte[] bookingsJson() {
+        StringJoiner json = new StringJoiner(",", "[", "]");
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 10, 0);
+        for (int i = 1; i <= BOOKINGS; i++) {
+            json.add(String.format("{\"id\":%d,\"item\":{\"id\":%d,\"name\":\"Дрель %d\"},"
+                            + "\"booker\":{\"id\":1,\"name\":\"Иван\"},\"status\":\"APPROVED\","
+                            + "\"start\":\"%s\",\"end\":\"%s\"}",
+                    i, i, i, start.plusDays(i), start.plusDays(i).plusHours(2)));
+        }
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Result(long allocatedPerRequest, long microsPerRequest, byte[] body) {
+        @Override
+        public String toString() {
+            return String.format("%d КБ выделено на запрос, %d мкс на запрос",
+                    allocatedPerRequest / 1024, microsPerRequest);
+        }
+    }
+}
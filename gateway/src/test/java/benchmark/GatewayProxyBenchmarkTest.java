@@ -0,0 +1,145 @@
+package benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItGateway;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Proxies GET /items/{id} through the gateway to a stub server that answers after a fixed delay, comparing
+ * the blocking RestTemplate path with the non-blocking one. Both run on platform threads: on virtual threads
+ * the blocking path waits for pooled connections inside {@code synchronized}, which pins every carrier.
+ * Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@Slf4j
+public class GatewayProxyBenchmarkTest {
+
+    static final int CONNECTIONS = 2000;
+    static final int REQUESTS_PER_CONNECTION = 2;
+    static final int WARMUP_REQUESTS = 200;
+    static final Duration SERVER_LATENCY = Duration.ofMillis(20);
+    static final byte[] ITEM = "{\"id\":1,\"name\":\"drill\",\"description\":\"cordless drill\",\"available\":true}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void benchmarkBlockingAgainstNonBlockingProxy() throws Exception {
+        // the stub closes idle connections above 200 by default, racing the gateway's pool for them
+        System.setProperty("sun.net.httpserver.maxIdleConnections", String.valueOf(CONNECTIONS));
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(SERVER_LATENCY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, ITEM.length);
+            exchange.getResponseBody().write(ITEM);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String serverUrl = "http://localhost:" + server.getAddress().getPort();
+            Result blocking = run(serverUrl, false);
+            Result nonBlocking = run(serverUrl, true);
+            log.info("{} соединений, сервер отвечает за {} мс", CONNECTIONS, SERVER_LATENCY.toMillis());
+            log.info("блокирующий: {}", blocking);
+            log.info("неблокирующий: {}", nonBlocking);
+
+            Assertions.assertThat(nonBlocking.failed).isZero();
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private Result run(String serverUrl, boolean nonBlocking) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--server.port=0",
+                        "--shareit-server.url=" + serverUrl,
+                        "--shareit-server.non-blocking=" + nonBlocking,
+                        "--shareit-server.max-in-flight=" + CONNECTIONS,
+                        "--spring.threads.virtual.enabled=false",
+                        "--logging.level.org.springframework.web.client.RestTemplate=INFO")) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/1"))
+                    .timeout(Duration.ofMinutes(5))
+                    .build();
+            try (HttpClient client = HttpClient.newHttpClient()) {
+                for (int i = 0; i < WARMUP_REQUESTS; i++) {
+                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                }
+            }
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            AtomicInteger failed = new AtomicInteger();
+            long[] durations = new long[CONNECTIONS * REQUESTS_PER_CONNECTION];
+            long start = System.nanoTime();
+            try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor();
+                 HttpClient client = HttpClient.newBuilder()
+                         .version(HttpClient.Version.HTTP_1_1)
+                         .executor(callers)
+                         .build()) {
+                List<Future<?>> connections = new ArrayList<>();
+                for (int c = 0; c < CONNECTIONS; c++) {
+                    int connection = c;
+                    connections.add(callers.submit(() -> {
+                        for (int r = 0; r < REQUESTS_PER_CONNECTION; r++) {
+                            long requestStart = System.nanoTime();
+                            try {
+                                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                    failed.incrementAndGet();
+                                }
+                            } catch (Exception e) {
+                                failed.incrementAndGet();
+                            }
+                            durations[connection * REQUESTS_PER_CONNECTION + r] = System.nanoTime() - requestStart;
+                        }
+                    }));
+                }
+                for (Future<?> connection : connections) {
+                    connection.get();
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            Arrays.sort(durations);
+            return new Result(durations.length * 1_000_000_000L / elapsed,
+                    durations[durations.length / 2] / 1_000_000,
+                    durations[(int) Math.ceil(durations.length * 0.99) - 1] / 1_000_000,
+                    threads.getPeakThreadCount(), failed.get());
+        }
+    }
+
+    private record Result(long requestsPerSecond, long p50Millis, long p99Millis, int peakPlatformThreads,
+                          int failed) {
+        @Override
+        public String toString() {
+            return String.format("%d запросов/с, p50 %d мс, p99 %d мс, потоков платформы %d, ошибок %d",
+                    requestsPerSecond, p50Millis, p99Millis, peakPlatformThreads, failed);
+        }
+    }
+}
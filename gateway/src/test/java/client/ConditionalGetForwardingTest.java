@@ -0,0 +1,111 @@
+package client;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.client.ResponseCache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Function;
+
+// The response cache is bypassed, so the caller's If-None-Match reaches the server as on an uncached route.
+@SpringBootTest(classes = ShareItGateway.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ConditionalGetForwardingTest {
+
+    static final String ITEM_ETAG = "\"rev-1\"";
+    static final StubServer server = startServer();
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", server::url);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @Nested
+    @TestPropertySource(properties = "shareit-server.non-blocking=true")
+    class NonBlocking extends Cases {
+    }
+
+    @Nested
+    @TestPropertySource(properties = "shareit-server.non-blocking=false")
+    class Blocking extends Cases {
+    }
+
+    abstract class Cases {
+
+        @Autowired
+        TestRestTemplate rest;
+
+        @MockBean
+        ResponseCache responseCache;
+
+        @BeforeEach
+        @SuppressWarnings("unchecked")
+        void setUp() {
+            Mockito.when(responseCache.get(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                    ArgumentMatchers.any())).thenAnswer(invocation -> invocation.getArgument(3, Function.class)
+                    .apply(invocation.getArgument(2)));
+            server.respond((method, path, ifNoneMatch) -> ITEM_ETAG.equals(ifNoneMatch)
+                    ? new StubServer.Response(304, ITEM_ETAG, null)
+                    : new StubServer.Response(200, ITEM_ETAG, "{\"id\":1,\"name\":\"drill\"}"));
+            server.reset();
+        }
+
+        @Test
+        void testShouldForwardNotModifiedWithETag() {
+            ResponseEntity<String> response = get(ITEM_ETAG);
+
+            Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+            Assertions.assertThat(response.getHeaders().getETag()).isEqualTo(ITEM_ETAG);
+            Assertions.assertThat(response.getBody()).isNull();
+            Assertions.assertThat(server.requests()).containsExactly("GET /items/1 If-None-Match: " + ITEM_ETAG);
+        }
+
+        @Test
+        void testShouldForwardItemForOutdatedTag() {
+            ResponseEntity<String> response = get("\"rev-0\"");
+
+            Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+            Assertions.assertThat(response.getHeaders().getETag()).isEqualTo(ITEM_ETAG);
+            Assertions.assertThat(response.getBody()).isEqualTo("{\"id\":1,\"name\":\"drill\"}");
+            Assertions.assertThat(server.requests()).containsExactly("GET /items/1 If-None-Match: \"rev-0\"");
+        }
+
+        private ResponseEntity<String> get(String ifNoneMatch) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("X-Sharer-User-Id", "1");
+            headers.setIfNoneMatch(ifNoneMatch);
+            return rest.exchange("/items/1", HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        }
+    }
+
+    private static StubServer startServer() {
+        try {
+            return new StubServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package client;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.assertj.core.api.Assertions;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.ShareItGateway;
+import ru.practicum.shareit.client.ResponseCache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+@SpringBootTest(classes = ShareItGateway.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "shareit-gateway.cache.routes.item.ttl=1s",
+                "shareit-gateway.cache.routes.item.stale-while-revalidate=1m",
+                "shareit-gateway.cache.routes.search.ttl=1m"
+        })
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ResponseCacheTest {
+
+    static final String ITEM_ETAG = "\"rev-1\"";
+    static final String SEARCH = "/items/search?text=drill";
+    static final StubServer server = startServer();
+
+    @Autowired
+    TestRestTemplate rest;
+
+    @Autowired
+    ResponseCache responseCache;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", server::url);
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.close();
+    }
+
+    @BeforeEach
+    void reset() {
+        responseCache.invalidateAll();
+        server.respond((method, path, ifNoneMatch) -> {
+            if (method.equals("GET") && path.equals("/items/1")) {
+                return ITEM_ETAG.equals(ifNoneMatch)
+                        ? new StubServer.Response(304, ITEM_ETAG, null)
+                        : new StubServer.Response(200, ITEM_ETAG, "{\"id\":1,\"name\":\"drill\"}");
+            }
+            if (method.equals("PATCH") && path.startsWith("/bookings/")) {
+                return new StubServer.Response(200, null, "{\"id\":5,\"item\":{\"id\":1}}");
+            }
+            return new StubServer.Response(200, null, "[{\"id\":1}]");
+        });
+        server.reset();
+    }
+
+    @Test
+    void testShouldFetchFreshItemOnce() {
+        ResponseEntity<String> first = get("/items/1", null);
+        ResponseEntity<String> second = get("/items/1", null);
+
+        Assertions.assertThat(first.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(second.getBody()).isEqualTo(first.getBody());
+        Assertions.assertThat(second.getHeaders().getETag()).isEqualTo(ITEM_ETAG);
+        Assertions.assertThat(server.requests()).containsExactly("GET /items/1");
+    }
+
+    @Test
+    void testShouldAnswerMatchingIfNoneMatchFromCache() {
+        get("/items/1", null);
+
+        ResponseEntity<String> notModified = get("/items/1", ITEM_ETAG);
+
+        Assertions.assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        Assertions.assertThat(notModified.getHeaders().getETag()).isEqualTo(ITEM_ETAG);
+        Assertions.assertThat(server.requests()).containsExactly("GET /items/1");
+    }
+
+    @Test
+    void testShouldServeStaleItemAndRevalidateWithETag() throws InterruptedException {
+        get("/items/1", null);
+        Thread.sleep(1100);
+
+        ResponseEntity<String> stale = get("/items/1", null);
+        Awaitility.await().atMost(Duration.ofSeconds(5)).untilAsserted(() ->
+                Assertions.assertThat(server.requests())
+                        .containsExactly("GET /items/1", "GET /items/1 If-None-Match: " + ITEM_ETAG));
+        ResponseEntity<String> refreshed = get("/items/1", null);
+
+        Assertions.assertThat(stale.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(refreshed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(refreshed.getBody()).isEqualTo(stale.getBody());
+        Assertions.assertThat(server.requests()).hasSize(2);
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @MethodSource("itemWrites")
+    void testShouldDropItemOnWrite(HttpMethod method, String path, String body) {
+        get("/items/1", null);
+
+        send(method, path, body);
+        get("/items/1", null);
+
+        Assertions.assertThat(server.requests()).filteredOn(request -> request.equals("GET /items/1")).hasSize(2);
+    }
+
+    static Stream<Arguments> itemWrites() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return Stream.of(
+                Arguments.of(HttpMethod.PATCH, "/items/1", "{\"name\":\"hammer\"}"),
+                Arguments.of(HttpMethod.DELETE, "/items/1", null),
+                Arguments.of(HttpMethod.POST, "/items/1/comment", "{\"text\":\"good\"}"),
+                Arguments.of(HttpMethod.POST, "/bookings",
+                        "{\"itemId\":1,\"start\":\"" + start + "\",\"end\":\"" + start.plusDays(1) + "\"}"),
+                Arguments.of(HttpMethod.PATCH, "/bookings/5?approved=true", null),
+                Arguments.of(HttpMethod.PATCH, "/users/2", "{\"name\":\"renamed\"}"),
+                Arguments.of(HttpMethod.DELETE, "/users/2", null)
+        );
+    }
+
+    @ParameterizedTest(name = "{0} {1}")
+    @MethodSource("searchWrites")
+    void testShouldDropSearchesOnWrite(HttpMethod method, String path, String body) {
+        get(SEARCH, null);
+        get(SEARCH, null);
+
+        send(method, path, body);
+        get(SEARCH, null);
+
+        Assertions.assertThat(server.requests()).filteredOn(request -> request.startsWith("GET /items/search"))
+                .hasSize(2);
+    }
+
+    static Stream<Arguments> searchWrites() {
+        return Stream.of(
+                Arguments.of(HttpMethod.POST, "/items", "{\"name\":\"drill\",\"description\":\"new\",\"available\":true}"),
+                Arguments.of(HttpMethod.POST, "/items/batch", "[{\"name\":\"drill\",\"description\":\"new\",\"available\":true}]"),
+                Arguments.of(HttpMethod.PATCH, "/items/1", "{\"available\":false}"),
+                Arguments.of(HttpMethod.DELETE, "/items/1", null),
+                Arguments.of(HttpMethod.PATCH, "/users/2", "{\"name\":\"renamed\"}")
+        );
+    }
+
+    @Test
+    void testShouldNotCacheFreeItemSearch() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        String path = SEARCH + "&start=" + start + "&end=" + start.plusDays(1);
+
+        get(path, null);
+        get(path, null);
+
+        Assertions.assertThat(server.requests()).hasSize(2);
+    }
+
+    private ResponseEntity<String> get(String path, String ifNoneMatch) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+        if (ifNoneMatch != null) {
+            headers.setIfNoneMatch(ifNoneMatch);
+        }
+        return rest.exchange(path, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private void send(HttpMethod method, String path, String body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", "1");
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        ResponseEntity<String> response = rest.exchange(path, method, new HttpEntity<>(body, headers), String.class);
+        Assertions.assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+    }
+
+    private static StubServer startServer() {
+        try {
+            return new StubServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
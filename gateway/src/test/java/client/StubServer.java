@@ -0,0 +1,76 @@
+package client;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Stands in for the server behind the gateway. Every request is recorded as method, path with query, and
+ * If-None-Match; answers come from the current {@link Responder}.
+ */
+class StubServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private volatile Responder responder = (method, path, ifNoneMatch) -> new Response(200, null, "{}");
+
+    StubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    void respond(Responder responder) {
+        this.responder = responder;
+    }
+
+    List<String> requests() {
+        return requests;
+    }
+
+    void reset() {
+        requests.clear();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().toString();
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        exchange.getRequestBody().readAllBytes();
+        requests.add(method + " " + path + (ifNoneMatch == null ? "" : " If-None-Match: " + ifNoneMatch));
+        Response response = responder.respond(method, path, ifNoneMatch);
+        if (response.eTag() != null) {
+            exchange.getResponseHeaders().add("ETag", response.eTag());
+        }
+        if (response.body() == null) {
+            exchange.sendResponseHeaders(response.status(), -1);
+        } else {
+            byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(response.status(), body.length);
+            exchange.getResponseBody().write(body);
+        }
+        exchange.close();
+    }
+
+    interface Responder {
+        Response respond(String method, String path, String ifNoneMatch);
+    }
+
+    record Response(int status, String eTag, String body) {
+    }
+}
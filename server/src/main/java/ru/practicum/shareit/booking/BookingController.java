@@ -1,12 +1,25 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingImportResultDto;
+import ru.practicum.shareit.booking.model.enums.ExportFormat;
 import ru.practicum.shareit.booking.model.enums.State;
+import ru.practicum.shareit.booking.service.BookingImportService;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.CursorMapper;
+import ru.practicum.shareit.user.service.UserService;
 
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
@@ -15,7 +28,13 @@ import java.util.List;
 public class BookingController {
 
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String DEFAULT_PAGE_SIZE = "50";
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv");
+    // an export streams all bookings of the owner's items, longer than the default async timeout allows
+    private static final long EXPORT_TIMEOUT_MILLIS = Duration.ofMinutes(10).toMillis();
     private final BookingService bookingService;
+    private final BookingImportService bookingImportService;
+    private final UserService userService;
 
     @PostMapping
     public BookingDto createBooking(@RequestBody BookingDtoRequest bookingDtoRequest,
@@ -23,6 +42,11 @@ public class BookingController {
         return bookingService.createBooking(bookingDtoRequest, bookerId);
     }
 
+    @PostMapping(path = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public BookingImportResultDto importBookings(InputStream inputStream) {
+        return bookingImportService.importBookings(inputStream);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approveBooking(@PathVariable Long bookingId,
                                      @RequestHeader(value = USER_ID_HEADER, required = false) Long ownerId,
@@ -37,14 +61,36 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getBookingsByUserId(@RequestHeader(value = USER_ID_HEADER, required = false) Long bookerId,
-                                                @RequestParam(defaultValue = "ALL") State state) {
-        return bookingService.getBookingsByUserId(bookerId, state);
+    public ResponseEntity<List<BookingDto>> getBookingsByUserId(
+            @RequestHeader(value = USER_ID_HEADER, required = false) Long bookerId,
+            @RequestParam(defaultValue = "ALL") State state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) Integer size) {
+        return CursorMapper.mapToResponseEntity(bookingService.getBookingsByUserId(bookerId, state, cursor, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getBookingsByUserItems(@RequestHeader(value = USER_ID_HEADER, required = false) Long ownerId,
-                                                   @RequestParam(defaultValue = "ALL") State state) {
-        return bookingService.getBookingsByItemsOwner(ownerId, state);
+    public ResponseEntity<List<BookingDto>> getBookingsByUserItems(
+            @RequestHeader(value = USER_ID_HEADER, required = false) Long ownerId,
+            @RequestParam(defaultValue = "ALL") State state,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) Integer size) {
+        return CursorMapper.mapToResponseEntity(bookingService.getBookingsByItemsOwner(ownerId, state, cursor, size));
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByUserItems(
+            @RequestHeader(value = USER_ID_HEADER, required = false) Long ownerId,
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format,
+            WebRequest request) {
+        userService.getUserById(ownerId);
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(EXPORT_TIMEOUT_MILLIS);
+        StreamingResponseBody body = outputStream ->
+                bookingService.exportBookingsByItemsOwner(ownerId, format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(format == ExportFormat.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"bookings."
+                        + format.name().toLowerCase() + "\"")
+                .body(body);
     }
 }
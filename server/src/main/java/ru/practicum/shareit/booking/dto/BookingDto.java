@@ -3,8 +3,6 @@ package ru.practicum.shareit.booking.dto;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
 import ru.practicum.shareit.booking.model.enums.Status;
-import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 
@@ -14,9 +12,14 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class BookingDto {
     Long id;
-    Item item;
-    User booker;
+    BookingItemDto item;
+    BookerDto booker;
     Status status;
     LocalDateTime start;
     LocalDateTime end;
+
+    public BookingDto(Long id, LocalDateTime start, LocalDateTime end, Status status, Long itemId, String itemName,
+                      Long bookerId, String bookerName) {
+        this(id, new BookingItemDto(itemId, itemName), new BookerDto(bookerId, bookerName), status, start, end);
+    }
 }
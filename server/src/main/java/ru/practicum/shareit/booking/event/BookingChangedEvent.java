@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Value;
+import ru.practicum.shareit.booking.model.enums.Status;
+
+import java.time.LocalDateTime;
+
+@Value
+public class BookingChangedEvent {
+    Long bookingId;
+    Long itemId;
+    LocalDateTime start;
+    LocalDateTime end;
+    Status status;
+}
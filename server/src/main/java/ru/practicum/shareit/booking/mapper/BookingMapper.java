@@ -1,8 +1,11 @@
 package ru.practicum.shareit.booking.mapper;
 
 import ru.practicum.shareit.booking.model.enums.Status;
+import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingImportDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
@@ -12,6 +15,10 @@ import java.util.stream.Collectors;
 
 public class BookingMapper {
 
+    public static final String CSV_HEADER = "id,start,end,status,itemId,itemName,bookerId,bookerName";
+    // a cell starting with one of these is read as a formula by spreadsheets, so it is prefixed with '
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
     public static Booking mapToBooking(BookingDtoRequest bookingDtoRequest, User user, Item item) {
         Booking booking = new Booking();
         booking.setStatus(Status.WAITING);
@@ -22,17 +29,52 @@ public class BookingMapper {
         return booking;
     }
 
+    public static Booking mapToBooking(BookingImportDto bookingImportDto, User user, Item item) {
+        Booking booking = new Booking();
+        booking.setStatus(bookingImportDto.getStatus() == null ? Status.WAITING : bookingImportDto.getStatus());
+        booking.setBooker(user);
+        booking.setItem(item);
+        booking.setStart(bookingImportDto.getStart());
+        booking.setEnd(bookingImportDto.getEnd());
+        return booking;
+    }
+
     public static BookingDto mapToBookingDto(Booking booking) {
         BookingDto bookingDto = new BookingDto();
         bookingDto.setId(booking.getId());
         bookingDto.setStatus(booking.getStatus());
-        bookingDto.setBooker(booking.getBooker());
-        bookingDto.setItem(booking.getItem());
+        bookingDto.setBooker(new BookerDto(booking.getBooker().getId(), booking.getBooker().getName()));
+        bookingDto.setItem(new BookingItemDto(booking.getItem().getId(), booking.getItem().getName()));
         bookingDto.setStart(booking.getStart());
         bookingDto.setEnd(booking.getEnd());
         return bookingDto;
     }
 
+    public static String mapToCsvRow(BookingDto booking) {
+        return String.join(",",
+                String.valueOf(booking.getId()),
+                String.valueOf(booking.getStart()),
+                String.valueOf(booking.getEnd()),
+                String.valueOf(booking.getStatus()),
+                String.valueOf(booking.getItem().getId()),
+                escapeCsv(booking.getItem().getName()),
+                String.valueOf(booking.getBooker().getId()),
+                escapeCsv(booking.getBooker().getName()));
+    }
+
+    private static String escapeCsv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
     public static List<BookingDto> mapToBookingDto(List<Booking> bookings) {
         return bookings.stream()
                 .map(BookingMapper::mapToBookingDto)
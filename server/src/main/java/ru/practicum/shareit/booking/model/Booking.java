@@ -14,9 +14,24 @@ import java.time.LocalDateTime;
 @Entity
 @NoArgsConstructor
 @Table(name = "bookings")
+@NamedEntityGraph(name = Booking.WITH_ITEM_OWNER_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "item", subgraph = "item"),
+                @NamedAttributeNode("booker")
+        },
+        subgraphs = @NamedSubgraph(name = "item", attributeNodes = @NamedAttributeNode("owner")))
+@NamedEntityGraph(name = Booking.WITH_BOOKER_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("booker"),
+                @NamedAttributeNode("item")
+        })
 public class Booking {
+    public static final String WITH_ITEM_OWNER_GRAPH = "Booking.withItemOwner";
+    public static final String WITH_BOOKER_GRAPH = "Booking.withBooker";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     Long id;
 
     @Column(name = "start_date", nullable = false)
@@ -1,8 +1,13 @@
 package ru.practicum.shareit.booking.model.enums;
 
+import java.util.Set;
+
 public enum Status {
     WAITING,
     APPROVED,
     REJECTED,
-    CANCELLED
+    CANCELLED;
+
+    // statuses of bookings that occupy the item for their period
+    public static final Set<Status> ACTIVE = Set.of(WAITING, APPROVED);
 }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.BookingImportResultDto;
+
+import java.io.InputStream;
+
+public interface BookingImportService {
+
+    BookingImportResultDto importBookings(InputStream inputStream);
+}
@@ -0,0 +1,209 @@
+package ru.practicum.shareit.booking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingImportDto;
+import ru.practicum.shareit.booking.dto.BookingImportErrorDto;
+import ru.practicum.shareit.booking.dto.BookingImportResultDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.mapper.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.Status;
+import ru.practicum.shareit.booking.storage.BookingIntervalCache;
+import ru.practicum.shareit.booking.storage.BookingIntervals;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Reads bookings line by line and stores them in chunks, each chunk in its own transaction,
+ * so neither the file nor the persistence context grows with the import size.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookingImportServiceImpl implements BookingImportService {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final int MAX_CACHED_IDS = 10_000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingIntervalCache bookingIntervalCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public BookingImportResultDto importBookings(InputStream inputStream) {
+        log.info("Начало импорта бронирований");
+        BookingImportResultDto result = new BookingImportResultDto();
+        Map<Long, Boolean> knownItems = boundedCache();
+        Map<Long, Boolean> knownUsers = boundedCache();
+        List<ImportLine> chunk = new ArrayList<>(CHUNK_SIZE);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.setTotal(result.getTotal() + 1);
+                try {
+                    chunk.add(new ImportLine(lineNumber, objectMapper.readValue(line, BookingImportDto.class)));
+                } catch (JsonProcessingException e) {
+                    reject(result, lineNumber, "Некорректная строка: " + e.getOriginalMessage());
+                }
+                if (chunk.size() == CHUNK_SIZE) {
+                    importChunk(chunk, knownItems, knownUsers, result);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            throw new ValidationException("Не удалось прочитать файл импорта: " + e.getMessage());
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, knownItems, knownUsers, result);
+        }
+        log.info("Импорт бронирований завершен: строк {}, загружено {}, отклонено {}", result.getTotal(),
+                result.getImported(), result.getFailed());
+        return result;
+    }
+
+    private void importChunk(List<ImportLine> chunk, Map<Long, Boolean> knownItems, Map<Long, Boolean> knownUsers,
+                             BookingImportResultDto result) {
+        resolve(chunk, BookingImportDto::getItemId, knownItems, itemRepository::findIdsByIdIn);
+        resolve(chunk, BookingImportDto::getBookerId, knownUsers, userRepository::findIdsByIdIn);
+        List<ImportLine> accepted = new ArrayList<>();
+        Map<Long, BookingIntervals> chunkIntervals = new HashMap<>();
+        for (ImportLine line : chunk) {
+            String error = validate(line.getBooking(), knownItems, knownUsers);
+            if (error == null) {
+                error = checkOverlap(line, chunkIntervals);
+            }
+            if (error == null) {
+                accepted.add(line);
+            } else {
+                reject(result, line.getNumber(), error);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> bookingRepository.saveAll(accepted.stream()
+                    .map(line -> toBooking(line.getBooking()))
+                    .toList())
+                    .forEach(booking -> eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(),
+                            booking.getItem().getId(), booking.getStart(), booking.getEnd(),
+                            booking.getStatus()))));
+            result.setImported(result.getImported() + accepted.size());
+        } catch (DataAccessException e) {
+            log.error("Не удалось сохранить пакет бронирований: {}", e.getMessage());
+            accepted.forEach(line -> reject(result, line.getNumber(), "Не удалось сохранить бронирование"));
+        }
+        log.info("Импорт бронирований: обработано строк {}, загружено {}, отклонено {}", result.getTotal(),
+                result.getImported(), result.getFailed());
+    }
+
+    private void resolve(List<ImportLine> chunk, Function<BookingImportDto, Long> idGetter,
+                         Map<Long, Boolean> known, Function<Collection<Long>, List<Long>> finder) {
+        Set<Long> missing = new HashSet<>();
+        for (ImportLine line : chunk) {
+            Long id = idGetter.apply(line.getBooking());
+            if (id != null && !known.containsKey(id)) {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        Set<Long> found = new HashSet<>(finder.apply(missing));
+        missing.forEach(id -> known.put(id, found.contains(id)));
+    }
+
+    private String validate(BookingImportDto booking, Map<Long, Boolean> knownItems, Map<Long, Boolean> knownUsers) {
+        if (booking.getItemId() == null || booking.getBookerId() == null) {
+            return "Не указаны вещь или пользователь";
+        }
+        if (booking.getStart() == null || booking.getEnd() == null || !booking.getStart().isBefore(booking.getEnd())) {
+            return "Некорректный период бронирования";
+        }
+        if (!Objects.equals(knownItems.get(booking.getItemId()), Boolean.TRUE)) {
+            return "Вещь с id = " + booking.getItemId() + " не найдена";
+        }
+        if (!Objects.equals(knownUsers.get(booking.getBookerId()), Boolean.TRUE)) {
+            return "Пользователь с id = " + booking.getBookerId() + " не найден";
+        }
+        return null;
+    }
+
+    private String checkOverlap(ImportLine line, Map<Long, BookingIntervals> chunkIntervals) {
+        BookingImportDto booking = line.getBooking();
+        Status status = booking.getStatus() == null ? Status.WAITING : booking.getStatus();
+        if (!Status.ACTIVE.contains(status)) {
+            return null;
+        }
+        BookingIntervals pending = chunkIntervals.computeIfAbsent(booking.getItemId(), id -> new BookingIntervals());
+        if (pending.overlaps(booking.getStart(), booking.getEnd())
+                || bookingIntervalCache.hasOverlap(booking.getItemId(), booking.getStart(), booking.getEnd())) {
+            return "Вещь " + booking.getItemId() + " уже забронирована на пересекающийся период";
+        }
+        pending.add(line.getNumber(), booking.getStart(), booking.getEnd());
+        return null;
+    }
+
+    private Booking toBooking(BookingImportDto booking) {
+        return BookingMapper.mapToBooking(booking, userRepository.getReferenceById(booking.getBookerId()),
+                itemRepository.getReferenceById(booking.getItemId()));
+    }
+
+    private void reject(BookingImportResultDto result, long lineNumber, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new BookingImportErrorDto(lineNumber, message));
+        }
+    }
+
+    private static <K, V> Map<K, V> boundedCache() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > MAX_CACHED_IDS;
+            }
+        };
+    }
+
+    @Value
+    private static class ImportLine {
+        long number;
+        BookingImportDto booking;
+    }
+}
@@ -2,9 +2,12 @@ package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.model.enums.ExportFormat;
 import ru.practicum.shareit.booking.model.enums.State;
+import ru.practicum.shareit.pagination.dto.PageDto;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
 
 public interface BookingService {
 
@@ -14,7 +17,9 @@ public interface BookingService {
 
     BookingDto getBookingById(Long bookingId, Long userId);
 
-    List<BookingDto> getBookingsByUserId(Long userId, State state);
+    PageDto<BookingDto> getBookingsByUserId(Long userId, State state, String cursor, Integer size);
 
-    List<BookingDto> getBookingsByItemsOwner(Long userId, State state);
+    PageDto<BookingDto> getBookingsByItemsOwner(Long userId, State state, String cursor, Integer size);
+
+    void exportBookingsByItemsOwner(Long userId, ExportFormat format, OutputStream outputStream) throws IOException;
 }
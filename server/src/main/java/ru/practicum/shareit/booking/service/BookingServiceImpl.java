@@ -1,28 +1,44 @@
 package ru.practicum.shareit.booking.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.enums.ExportFormat;
 import ru.practicum.shareit.booking.model.enums.State;
 import ru.practicum.shareit.booking.model.enums.Status;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.BookingIntervalCache;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.pagination.CursorMapper;
+import ru.practicum.shareit.pagination.dto.PageDto;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.user.storage.UserLookupCache;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.Collections;
-import java.util.List;
+import java.util.Iterator;
 import java.util.Objects;
-import java.util.stream.Collectors;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
@@ -31,21 +47,45 @@ import java.util.stream.Collectors;
 public class BookingServiceImpl implements BookingService {
 
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
     private final BookingRepository bookingRepository;
+    private final BookingIntervalCache bookingIntervalCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private static final String START_PROPERTY = "start";
+    private static final String OVERLAP_CONSTRAINT = "bookings_no_overlap";
+    private static final byte[] LINE_SEPARATOR = "\n".getBytes(StandardCharsets.UTF_8);
 
     @Override
     @Transactional
     public BookingDto createBooking(BookingDtoRequest bookingDtoRequest, Long userId) {
         log.info("Начало бронирования");
-        User user = userRepository.findById(userId)
+        User user = userLookupCache.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден"));
         Item item = itemRepository.findById(bookingDtoRequest.getItemId())
                 .orElseThrow(() -> new NotFoundException("Вещь с id = " + bookingDtoRequest.getItemId() + " не найдена"));
         if (!item.getAvailable()) {
             throw new IllegalStateException("Вещь " + item.getId() + " недоступна для бронирования");
         }
-        Booking booking = bookingRepository.save(BookingMapper.mapToBooking(bookingDtoRequest, user, item));
+        LocalDateTime start = bookingDtoRequest.getStart();
+        LocalDateTime end = bookingDtoRequest.getEnd();
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new ValidationException("Некорректный период бронирования");
+        }
+        if (bookingIntervalCache.hasOverlap(item.getId(), start, end)) {
+            throw new ConflictException("Вещь " + item.getId() + " уже забронирована на пересекающийся период");
+        }
+        Booking booking;
+        try {
+            booking = bookingRepository.saveAndFlush(BookingMapper.mapToBooking(bookingDtoRequest, user, item));
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) {
+                throw e;
+            }
+            bookingIntervalCache.evict(item.getId());
+            throw new ConflictException("Вещь " + item.getId() + " уже забронирована на пересекающийся период");
+        }
+        publishChange(booking);
         log.info("Запрос бронирования с id = {} вещи с id = {} пользователем с id = {} добавлен", booking.getId(),
                 item.getId(), userId);
         return BookingMapper.mapToBookingDto(booking);
@@ -54,12 +94,12 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public BookingDto approveBooking(Long bookingId, Boolean approved, Long userId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        Booking booking = bookingRepository.findWithItemOwnerById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование с id = " + bookingId + " не найдено"));
         Long ownerId = booking.getItem().getOwner().getId();
         if (!Objects.equals(ownerId, userId)) {
             throw new ValidationException("Пользователь с id " + userId + " не является владельцем вещи "
-                    + booking.getItem());
+                    + booking.getItem().getId());
         }
         if (!Objects.equals(booking.getStatus(), Status.WAITING)) {
             throw new IllegalStateException("Бронирование подтверждено или отклонено");
@@ -70,57 +110,84 @@ public class BookingServiceImpl implements BookingService {
             booking.setStatus(Status.REJECTED);
         }
         booking = bookingRepository.save(booking);
+        publishChange(booking);
         log.info("Бронирование c id = {} подтверждено пользователем с id = {}", bookingId, userId);
         return BookingMapper.mapToBookingDto(booking);
     }
 
     @Override
     public BookingDto getBookingById(Long bookingId, Long userId) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден"));
-        Booking booking = bookingRepository.findById(bookingId)
+        if (!userLookupCache.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не найден");
+        }
+        Booking booking = bookingRepository.findWithBookerById(bookingId)
                 .orElseThrow(() -> new NotFoundException("Бронирование с id = " + bookingId + " не найдено"));
         return BookingMapper.mapToBookingDto(booking);
     }
 
     @Override
-    public List<BookingDto> getBookingsByUserId(Long userId, State state) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден"));
-        LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings = switch (state) {
-            case PAST -> bookingRepository.findAllByBookerIdAndEndBeforeOrderByStartDesc(userId, now);
-            case CURRENT -> bookingRepository.findAllByBookerIdAndEndAfterOrderByStartDesc(userId, now);
-            case FUTURE -> bookingRepository.findAllByBookerIdAndStartAfterOrderByStartDesc(userId, now);
-            case WAITING, REJECTED -> bookingRepository.findAllByBookerIdAndStatusOrderByStartDesc(userId,
-                    Status.valueOf(state.toString()));
-            default -> bookingRepository.findAllByBookerId(userId);
-        };
-        return BookingMapper.mapToBookingDto(bookings);
+    public PageDto<BookingDto> getBookingsByUserId(Long userId, State state, String cursor, Integer size) {
+        if (!userLookupCache.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не найден");
+        }
+        ScrollPosition position = CursorMapper.mapToScrollPosition(cursor, START_PROPERTY);
+        Limit limit = CursorMapper.mapToLimit(size);
+        Window<BookingDto> bookings = bookingRepository.findBookerBookings(userId, state, LocalDateTime.now(),
+                position, limit);
+        return CursorMapper.mapToPageDto(bookings, START_PROPERTY, Function.identity());
     }
 
     @Override
-    public List<BookingDto> getBookingsByItemsOwner(Long userId, State state) {
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден"));
-        List<Long> itemIds = itemRepository.findByOwnerIdOrderById(userId)
-                .stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
-        if (itemIds.isEmpty()) {
-            return Collections.emptyList();
+    public PageDto<BookingDto> getBookingsByItemsOwner(Long userId, State state, String cursor, Integer size) {
+        if (!userLookupCache.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не найден");
+        }
+        ScrollPosition position = CursorMapper.mapToScrollPosition(cursor, START_PROPERTY);
+        Limit limit = CursorMapper.mapToLimit(size);
+        Window<BookingDto> bookings = bookingRepository.findOwnerBookings(userId, state, LocalDateTime.now(),
+                position, limit);
+        return CursorMapper.mapToPageDto(bookings, START_PROPERTY, Function.identity());
+    }
+
+    @Override
+    public void exportBookingsByItemsOwner(Long userId, ExportFormat format, OutputStream outputStream)
+            throws IOException {
+        log.info("Начало выгрузки бронирований владельца {} в формате {}", userId, format);
+        long count = 0;
+        if (format == ExportFormat.CSV) {
+            outputStream.write(BookingMapper.CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+            outputStream.write(LINE_SEPARATOR);
         }
-        LocalDateTime now = LocalDateTime.now();
-        List<Booking> bookings = switch (state) {
-            case PAST -> bookingRepository.findByItemIdInAndEndBeforeOrderByStartDesc(itemIds, now);
-            case CURRENT -> bookingRepository.findByItemIdInAndEndAfterOrderByStartDesc(itemIds, now);
-            case FUTURE -> bookingRepository.findByItemIdInAndStartAfterOrderByStartDesc(itemIds, now);
-            case WAITING, REJECTED -> bookingRepository.findByItemIdInAndStatusOrderByStartDesc(itemIds,
-                    Status.valueOf(state.toString()));
-            default -> bookingRepository.findByItemIdInOrderByStartDesc(itemIds);
-        };
-        return bookings.stream()
-                .map(BookingMapper::mapToBookingDto)
-                .toList();
+        try (Stream<BookingDto> bookings = bookingRepository.streamByItemOwnerId(userId)) {
+            Iterator<BookingDto> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                BookingDto booking = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    outputStream.write(BookingMapper.mapToCsvRow(booking).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    outputStream.write(objectMapper.writeValueAsBytes(booking));
+                }
+                outputStream.write(LINE_SEPARATOR);
+                count++;
+            }
+        }
+        outputStream.flush();
+        log.info("Выгружено {} бронирований владельца {}", count, userId);
+    }
+
+    // Hibernate does not extract the names of exclusion constraints, the driver's message carries it
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException && cause.getMessage() != null
+                    && cause.getMessage().contains(OVERLAP_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void publishChange(Booking booking) {
+        eventPublisher.publishEvent(new BookingChangedEvent(booking.getId(), booking.getItem().getId(),
+                booking.getStart(), booking.getEnd(), booking.getStatus()));
     }
 }
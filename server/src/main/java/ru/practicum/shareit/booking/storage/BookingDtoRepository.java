@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.storage;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.enums.State;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingDtoRepository {
+
+    Window<BookingDto> findBookerBookings(Long bookerId, State state, LocalDateTime now, ScrollPosition position,
+                                          Limit limit);
+
+    Window<BookingDto> findOwnerBookings(Long ownerId, State state, LocalDateTime now, ScrollPosition position,
+                                         Limit limit);
+
+    List<AvailabilityIntervalDto> findBookedPeriods(Long itemId, LocalDateTime from, LocalDateTime to);
+}
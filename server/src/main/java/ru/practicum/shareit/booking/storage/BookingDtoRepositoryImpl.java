@@ -0,0 +1,128 @@
+package ru.practicum.shareit.booking.storage;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.enums.State;
+import ru.practicum.shareit.booking.model.enums.Status;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class BookingDtoRepositoryImpl implements BookingDtoRepository {
+
+    private static final String SELECT_BOOKING_DTO = "select new ru.practicum.shareit.booking.dto.BookingDto("
+            + "b.id, b.start, b.end, b.status, i.id, i.name, u.id, u.name) "
+            + "from Booking b join b.item i join b.booker u where ";
+    // The range and status conditions repeat the bookings_no_overlap exclusion constraint,
+    // so its GiST index bounds the scan by both ends of the period.
+    private static final String BOOKED_PERIODS_SQL = """
+            SELECT b.start_date, b.end_date FROM bookings b
+            WHERE b.item_id = :itemId AND b.status IN ('WAITING', 'APPROVED')
+                AND tsrange(b.start_date, b.end_date) && tsrange(CAST(:from AS timestamp), CAST(:to AS timestamp))
+            ORDER BY b.start_date""";
+    // A range scan of idx_bookings_item_status_end: end_date > :from bounds it, start_date < :to filters it.
+    private static final String BOOKED_PERIODS_JPQL = "select new ru.practicum.shareit.item.dto."
+            + "AvailabilityIntervalDto(b.start, b.end) from Booking b where b.item.id = :itemId "
+            + "and b.status in (ru.practicum.shareit.booking.model.enums.Status.WAITING, "
+            + "ru.practicum.shareit.booking.model.enums.Status.APPROVED) "
+            + "and b.end > :from and b.start < :to order by b.start";
+    private static final String START_PROPERTY = "start";
+    private static final String ID_PROPERTY = "id";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Window<BookingDto> findBookerBookings(Long bookerId, State state, LocalDateTime now,
+                                                 ScrollPosition position, Limit limit) {
+        return findPage("u.id = :userId", bookerId, state, now, position, limit);
+    }
+
+    @Override
+    public Window<BookingDto> findOwnerBookings(Long ownerId, State state, LocalDateTime now,
+                                                ScrollPosition position, Limit limit) {
+        return findPage("i.owner.id = :userId", ownerId, state, now, position, limit);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<AvailabilityIntervalDto> findBookedPeriods(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!isPostgres()) {
+            return entityManager.createQuery(BOOKED_PERIODS_JPQL, AvailabilityIntervalDto.class)
+                    .setParameter("itemId", itemId)
+                    .setParameter("from", from)
+                    .setParameter("to", to)
+                    .getResultList();
+        }
+        List<Object[]> rows = entityManager.createNativeQuery(BOOKED_PERIODS_SQL)
+                .unwrap(NativeQuery.class)
+                .addScalar("start_date", LocalDateTime.class)
+                .addScalar("end_date", LocalDateTime.class)
+                .setParameter("itemId", itemId)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new AvailabilityIntervalDto((LocalDateTime) row[0], (LocalDateTime) row[1]))
+                .toList();
+    }
+
+    private boolean isPostgres() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class).getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+    }
+
+    private Window<BookingDto> findPage(String userCondition, Long userId, State state, LocalDateTime now,
+                                        ScrollPosition position, Limit limit) {
+        StringBuilder jpql = new StringBuilder(SELECT_BOOKING_DTO).append(userCondition);
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("userId", userId);
+        switch (state) {
+            case PAST -> {
+                jpql.append(" and b.end < :now");
+                parameters.put("now", now);
+            }
+            case CURRENT -> {
+                jpql.append(" and b.end > :now");
+                parameters.put("now", now);
+            }
+            case FUTURE -> {
+                jpql.append(" and b.start > :now");
+                parameters.put("now", now);
+            }
+            case WAITING, REJECTED -> {
+                jpql.append(" and b.status = :status");
+                parameters.put("status", Status.valueOf(state.toString()));
+            }
+            default -> {
+            }
+        }
+        Map<String, Object> keys = ((KeysetScrollPosition) position).getKeys();
+        if (!keys.isEmpty()) {
+            jpql.append(" and (b.start < :start or (b.start = :start and b.id < :id))");
+            parameters.put(START_PROPERTY, keys.get(START_PROPERTY));
+            parameters.put(ID_PROPERTY, keys.get(ID_PROPERTY));
+        }
+        jpql.append(" order by b.start desc, b.id desc");
+        TypedQuery<BookingDto> query = entityManager.createQuery(jpql.toString(), BookingDto.class);
+        parameters.forEach(query::setParameter);
+        List<BookingDto> bookings = query.setMaxResults(limit.max() + 1).getResultList();
+        boolean hasNext = bookings.size() > limit.max();
+        List<BookingDto> page = hasNext ? bookings.subList(0, limit.max()) : bookings;
+        return Window.from(page, index -> ScrollPosition.forward(Map.of(
+                START_PROPERTY, page.get(index).getStart(),
+                ID_PROPERTY, page.get(index).getId())), hasNext);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.Status;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Periods of waiting and approved bookings for recently used items. An item is loaded from the database
+ * on first access and kept for at most {@code shareit.booking.interval-cache-ttl} from the load, so bookings
+ * made through other instances are seen once it expires. Changes made through this instance are applied at
+ * once and again when their transaction commits, so a load running concurrently with the change cannot drop
+ * it; an item is dropped when the transaction that changed it rolls back.
+ * <p>
+ * An overlap found here is confirmed with the database before it is reported, so a period cancelled
+ * elsewhere costs a query rather than a false conflict. An overlap missed here is caught on PostgreSQL
+ * by the {@code bookings_no_overlap} constraint.
+ */
+@Component
+public class BookingIntervalCache {
+
+    private static final int MAX_CACHED_ITEMS = 10_000;
+
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, BookingIntervals> intervals;
+
+    public BookingIntervalCache(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.interval-cache-ttl:1m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.intervals = Caffeine.newBuilder()
+                .maximumSize(MAX_CACHED_ITEMS)
+                .expireAfter(new Expiry<Long, BookingIntervals>() {
+                    @Override
+                    public long expireAfterCreate(Long itemId, BookingIntervals cached, long currentTime) {
+                        return ttl.toNanos();
+                    }
+
+                    // changes applied here do not make the rest of the periods any fresher
+                    @Override
+                    public long expireAfterUpdate(Long itemId, BookingIntervals cached, long currentTime,
+                                                  long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Long itemId, BookingIntervals cached, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public boolean hasOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!getIntervals(itemId).overlaps(start, end)) {
+            return false;
+        }
+        if (bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId, Status.ACTIVE, end,
+                start)) {
+            return true;
+        }
+        evict(itemId);
+        return false;
+    }
+
+    public BookingIntervals getIntervals(Long itemId) {
+        return intervals.get(itemId, this::load);
+    }
+
+    public void evict(Long itemId) {
+        intervals.invalidate(itemId);
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        apply(event);
+    }
+
+    // a load that read the database before the commit may have replaced the entry the change was applied to
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookingCommitted(BookingChangedEvent event) {
+        apply(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onBookingRolledBack(BookingChangedEvent event) {
+        evict(event.getItemId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemDeleted(ItemDeletedEvent event) {
+        evict(event.getItemId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        intervals.invalidateAll();
+    }
+
+    private BookingIntervals load(Long itemId) {
+        BookingIntervals loaded = new BookingIntervals();
+        for (Booking booking : bookingRepository.findAllByItemIdAndStatusIn(itemId, Status.ACTIVE)) {
+            loaded.add(booking.getId(), booking.getStart(), booking.getEnd());
+        }
+        return loaded;
+    }
+
+    // waits for a load of the same item in progress, so the change lands on the entry that load produces
+    private void apply(BookingChangedEvent event) {
+        intervals.asMap().computeIfPresent(event.getItemId(), (itemId, cached) -> {
+            cached.remove(event.getBookingId());
+            if (Status.ACTIVE.contains(event.getStatus())) {
+                cached.add(event.getBookingId(), event.getStart(), event.getEnd());
+            }
+            return cached;
+        });
+    }
+}
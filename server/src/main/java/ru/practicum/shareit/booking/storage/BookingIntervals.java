@@ -0,0 +1,90 @@
+package ru.practicum.shareit.booking.storage;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Booking periods of one item kept in parallel arrays sorted by start, together with the running maximum
+ * of end times. The periods with a start before a given moment form a prefix of the arrays, so an overlap
+ * check is a binary search plus one comparison even when the periods themselves overlap.
+ * Times are stored as UTC microseconds, the precision of database timestamps.
+ */
+public class BookingIntervals {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] starts = new long[INITIAL_CAPACITY];
+    private long[] ends = new long[INITIAL_CAPACITY];
+    private long[] maxEnds = new long[INITIAL_CAPACITY];
+    private int size;
+
+    public synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        int last = countStartsBefore(toMicros(end)) - 1;
+        return last >= 0 && maxEnds[last] > toMicros(start);
+    }
+
+    public synchronized void add(long id, LocalDateTime start, LocalDateTime end) {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            maxEnds = Arrays.copyOf(maxEnds, capacity);
+        }
+        long startMicros = toMicros(start);
+        int position = countStartsBefore(startMicros + 1);
+        System.arraycopy(ids, position, ids, position + 1, size - position);
+        System.arraycopy(starts, position, starts, position + 1, size - position);
+        System.arraycopy(ends, position, ends, position + 1, size - position);
+        ids[position] = id;
+        starts[position] = startMicros;
+        ends[position] = toMicros(end);
+        size++;
+        updateMaxEnds(position);
+    }
+
+    public synchronized void remove(long id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                System.arraycopy(starts, i + 1, starts, i, size - i - 1);
+                System.arraycopy(ends, i + 1, ends, i, size - i - 1);
+                size--;
+                updateMaxEnds(i);
+                return;
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private int countStartsBefore(long micros) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle] < micros) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void updateMaxEnds(int from) {
+        long max = from == 0 ? Long.MIN_VALUE : maxEnds[from - 1];
+        for (int i = from; i < size; i++) {
+            max = Math.max(max, ends[i]);
+            maxEnds[i] = max;
+        }
+    }
+
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+}
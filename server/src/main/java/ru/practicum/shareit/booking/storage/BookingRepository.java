@@ -1,44 +1,63 @@
 package ru.practicum.shareit.booking.storage;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
-import ru.practicum.shareit.booking.model.enums.Status;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.Status;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-
-    List<Booking> findAllByBookerId(Long userId);
-
-    List<Booking> findAllByBookerIdAndItemIdAndEndBeforeOrderByStartDesc(Long userId, Long itemId, LocalDateTime now);
-
-    List<Booking> findAllByItemIdAndStatusAndEndBeforeOrderByEndDesc(Long itemId, Status status, LocalDateTime now);
-
-    List<Booking> findAllByItemIdAndStartAfterOrderByStartAsc(Long itemId, LocalDateTime now);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingDtoRepository {
 
-    List<Booking> findByItemIdInAndStatusAndEndBeforeOrderByEndDesc(List<Long> itemIds, Status status, LocalDateTime now);
+    @EntityGraph(Booking.WITH_ITEM_OWNER_GRAPH)
+    Optional<Booking> findWithItemOwnerById(Long id);
 
-    List<Booking> findByItemIdInAndStartAfterOrderByStartAsc(List<Long> itemIds, LocalDateTime now);
+    @EntityGraph(Booking.WITH_BOOKER_GRAPH)
+    Optional<Booking> findWithBookerById(Long id);
 
-    List<Booking> findAllByBookerIdAndEndBeforeOrderByStartDesc(Long userId, LocalDateTime now);
+    List<Booking> findAllByItemIdAndStatusIn(Long itemId, Collection<Status> statuses);
 
-    List<Booking> findAllByBookerIdAndEndAfterOrderByStartDesc(Long userId, LocalDateTime now);
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(Long itemId, Collection<Status> statuses,
+                                                               LocalDateTime end, LocalDateTime start);
 
-    List<Booking> findAllByBookerIdAndStartAfterOrderByStartDesc(Long userId, LocalDateTime now);
+    @Query("select min(b.start) from Booking b where b.item.id = :itemId and b.start > :now")
+    Optional<LocalDateTime> findNextBookingStart(Long itemId, LocalDateTime now);
 
-    List<Booking> findAllByBookerIdAndStatusOrderByStartDesc(Long userId, Status status);
-
-    List<Booking> findByItemIdInOrderByStartDesc(List<Long> itemIds);
-
-    List<Booking> findByItemIdInAndEndBeforeOrderByStartDesc(List<Long> itemIds, LocalDateTime now);
-
-    List<Booking> findByItemIdInAndEndAfterOrderByStartDesc(List<Long> itemIds, LocalDateTime now);
-
-    List<Booking> findByItemIdInAndStartAfterOrderByStartDesc(List<Long> itemIds, LocalDateTime now);
+    List<Booking> findAllByBookerIdAndItemIdAndEndBeforeOrderByStartDesc(Long userId, Long itemId, LocalDateTime now);
 
-    List<Booking> findByItemIdInAndStatusOrderByStartDesc(List<Long> itemIds, Status status);
+    @Query("select new ru.practicum.shareit.booking.dto.BookingDto(r.bookingId, r.startDate, r.endDate, "
+            + "r.bookingStatus, r.itemId, r.itemName, r.bookerId, r.bookerName) from ("
+            + "select b.id as bookingId, b.start as startDate, b.end as endDate, b.status as bookingStatus, "
+            + "i.id as itemId, i.name as itemName, u.id as bookerId, u.name as bookerName, "
+            + "row_number() over (partition by i.id order by b.end desc, b.id desc) as rn "
+            + "from Booking b join b.item i join b.booker u "
+            + "where i.id in :itemIds and b.status = ru.practicum.shareit.booking.model.enums.Status.APPROVED "
+            + "and b.end < :now) r where r.rn = 1")
+    List<BookingDto> findLastApprovedBookingPerItem(List<Long> itemIds, LocalDateTime now);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingDto(r.bookingId, r.startDate, r.endDate, "
+            + "r.bookingStatus, r.itemId, r.itemName, r.bookerId, r.bookerName) from ("
+            + "select b.id as bookingId, b.start as startDate, b.end as endDate, b.status as bookingStatus, "
+            + "i.id as itemId, i.name as itemName, u.id as bookerId, u.name as bookerName, "
+            + "row_number() over (partition by i.id order by b.start, b.id) as rn "
+            + "from Booking b join b.item i join b.booker u "
+            + "where i.id in :itemIds and b.start > :now) r where r.rn = 1")
+    List<BookingDto> findNextBookingPerItem(List<Long> itemIds, LocalDateTime now);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select new ru.practicum.shareit.booking.dto.BookingDto(b.id, b.start, b.end, b.status, i.id, i.name, "
+            + "u.id, u.name) from Booking b join b.item i join b.booker u where i.owner.id = :ownerId "
+            + "order by b.start desc, b.id desc")
+    Stream<BookingDto> streamByItemOwnerId(Long ownerId);
 }
-
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caches are created by Spring Boot from {@code spring.cache.*} properties: Caffeine with bounded size,
+ * write TTL and recorded statistics, which the actuator publishes as {@code cache.*} metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String USERS_CACHE = "users";
+    public static final String ITEMS_CACHE = "items";
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.storage.BookingIntervalCache;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserUpdatedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evicts cached users and items after the changing transaction commits, so a concurrent read cannot put
+ * the old state back between eviction and commit. Rows removed by ON DELETE CASCADE are invisible to
+ * Hibernate, so deleting a user also drops the second-level regions of the entities that reference users.
+ * <p>
+ * With read replicas a read-only load right after the commit may still see the old rows on a lagging
+ * replica and cache them again. Every eviction is therefore repeated once the read-your-writes window has
+ * passed, so a stale entry outlives the write by no more than that window — the same staleness a direct
+ * replica read already has.
+ */
+@Component
+public class CacheEvictionListener implements DisposableBean {
+
+    private final CacheManager cacheManager;
+    private final EntityManagerFactory entityManagerFactory;
+    private final BookingIntervalCache bookingIntervalCache;
+    private final Duration replicaLagWindow;
+    private final ScheduledExecutorService scheduler;
+
+    public CacheEvictionListener(CacheManager cacheManager,
+                                 EntityManagerFactory entityManagerFactory,
+                                 BookingIntervalCache bookingIntervalCache,
+                                 ObjectProvider<ReplicaDataSourceProperties> replicaProperties) {
+        this.cacheManager = cacheManager;
+        this.entityManagerFactory = entityManagerFactory;
+        this.bookingIntervalCache = bookingIntervalCache;
+        ReplicaDataSourceProperties properties = replicaProperties.getIfAvailable();
+        this.replicaLagWindow = properties == null ? null : properties.getReadYourWritesWindow();
+        this.scheduler = replicaLagWindow == null ? null : Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-re-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserUpdated(UserUpdatedEvent event) {
+        evictNowAndLater(() -> {
+            evict(CacheConfig.USERS_CACHE, event.getUserId());
+            secondLevelCache().evictEntityData(User.class, event.getUserId());
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        evictNowAndLater(() -> {
+            evict(CacheConfig.USERS_CACHE, event.getUserId());
+            Cache items = cacheManager.getCache(CacheConfig.ITEMS_CACHE);
+            if (items != null) {
+                items.clear();
+            }
+            org.hibernate.Cache secondLevelCache = secondLevelCache();
+            secondLevelCache.evict(Item.class);
+            secondLevelCache.evict(ItemRequest.class);
+            secondLevelCache.evictQueryRegions();
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        evictNowAndLater(() -> {
+            evict(CacheConfig.ITEMS_CACHE, event.getDocument().getId());
+            secondLevelCache().evictEntityData(Item.class, event.getDocument().getId());
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemDeleted(ItemDeletedEvent event) {
+        evictNowAndLater(() -> {
+            evict(CacheConfig.ITEMS_CACHE, event.getItemId());
+            secondLevelCache().evictEntityData(Item.class, event.getItemId());
+        });
+    }
+
+    /**
+     * The interval cache applies committed changes itself, so only an entry loaded from a lagging replica
+     * in the meantime has to be dropped.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        evictLater(() -> bookingIntervalCache.evict(event.getItemId()));
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void evictNowAndLater(Runnable eviction) {
+        eviction.run();
+        evictLater(eviction);
+    }
+
+    private void evictLater(Runnable eviction) {
+        if (scheduler != null) {
+            scheduler.schedule(eviction, replicaLagWindow.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private org.hibernate.Cache secondLevelCache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    private void evict(String cacheName, Long id) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(id);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Installs {@link ConnectionMetricsTrackerFactory} on every Hikari pool bean before the pool starts.
+ * Spring Boot's own Hikari metrics binding then sees a tracker in place and leaves the pool alone.
+ */
+@Configuration
+public class ConnectionMetricsConfig {
+
+    @Bean
+    public ConnectionMetricsTrackerFactory connectionMetricsTrackerFactory(
+            MeterRegistry meterRegistry,
+            @Value("${shareit.jdbc.lease-warning-threshold:2s}") Duration leaseWarningThreshold) {
+        return new ConnectionMetricsTrackerFactory(meterRegistry, leaseWarningThreshold);
+    }
+
+    @Bean
+    public static BeanPostProcessor connectionMetricsPostProcessor(
+            ObjectProvider<ConnectionMetricsTrackerFactory> trackerFactory) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool && pool.getMetricsTrackerFactory() == null
+                        && pool.getMetricRegistry() == null) {
+                    pool.setMetricsTrackerFactory(trackerFactory.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
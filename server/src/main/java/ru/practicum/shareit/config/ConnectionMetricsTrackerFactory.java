@@ -0,0 +1,114 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool metrics from Hikari's Micrometer tracker ({@code hikaricp.connections.*}: active, idle, pending,
+ * acquire and usage time), plus connection wait and lease time per controller method. Hikari reports
+ * a lease on the thread that returns the connection, so the handler of the current request is known;
+ * leases longer than the warning threshold are logged with that handler.
+ */
+@Slf4j
+public class ConnectionMetricsTrackerFactory implements MetricsTrackerFactory {
+
+    static final String NO_ENDPOINT = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final MicrometerMetricsTrackerFactory poolMetrics;
+    private final long leaseWarningMillis;
+
+    public ConnectionMetricsTrackerFactory(MeterRegistry meterRegistry, Duration leaseWarningThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.poolMetrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        this.leaseWarningMillis = leaseWarningThreshold.toMillis();
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return new EndpointTracker(poolName, poolMetrics.create(poolName, poolStats));
+    }
+
+    static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return NO_ENDPOINT;
+        }
+        Object handler = attributes.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return NO_ENDPOINT;
+    }
+
+    private class EndpointTracker implements IMetricsTracker {
+
+        private final String poolName;
+        private final IMetricsTracker delegate;
+        private final Map<String, Timer> leases = new ConcurrentHashMap<>();
+        private final Map<String, Timer> waits = new ConcurrentHashMap<>();
+
+        EndpointTracker(String poolName, IMetricsTracker delegate) {
+            this.poolName = poolName;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            delegate.recordConnectionCreatedMillis(connectionCreatedMillis);
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            delegate.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+            waits.computeIfAbsent(currentEndpoint(), endpoint -> Timer.builder("shareit.jdbc.connection.wait")
+                            .description("Ожидание соединения из пула по обработчикам запросов")
+                            .tag("pool", poolName)
+                            .tag("endpoint", endpoint)
+                            .register(meterRegistry))
+                    .record(elapsedAcquiredNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            delegate.recordConnectionUsageMillis(elapsedBorrowedMillis);
+            String endpoint = currentEndpoint();
+            leases.computeIfAbsent(endpoint, name -> Timer.builder("shareit.jdbc.connection.lease")
+                            .description("Время удержания соединения по обработчикам запросов")
+                            .tag("pool", poolName)
+                            .tag("endpoint", name)
+                            .publishPercentileHistogram()
+                            .register(meterRegistry))
+                    .record(elapsedBorrowedMillis, TimeUnit.MILLISECONDS);
+            if (elapsedBorrowedMillis > leaseWarningMillis) {
+                log.warn("Соединение пула {} удерживалось {} мс в {}", poolName, elapsedBorrowedMillis, endpoint);
+            }
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            delegate.recordConnectionTimeout();
+            log.warn("Не удалось получить соединение пула {} в {}", poolName, currentEndpoint());
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
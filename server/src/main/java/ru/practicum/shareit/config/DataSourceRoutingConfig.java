@@ -0,0 +1,70 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the single data source with a read/write router once at least one replica is configured
+ * ({@code shareit.datasource.replicas[0].url}). The primary pool keeps the {@code spring.datasource.*}
+ * settings; replicas take the primary's driver, leak detection threshold and, unless given, its credentials.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.datasource.replicas[0].url")
+@EnableConfigurationProperties(ReplicaDataSourceProperties.class)
+public class DataSourceRoutingConfig {
+
+    // a read waiting on a dead replica falls back to the primary after this long
+    private static final Duration REPLICA_CONNECTION_TIMEOUT = Duration.ofSeconds(2);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                      DataSourceProperties primaryProperties,
+                                                      ReplicaDataSourceProperties properties,
+                                                      ConnectionMetricsTrackerFactory metricsTrackerFactory) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (ReplicaDataSourceProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(primaryProperties.determineDriverClassName())
+                    .url(replica.getUrl())
+                    .username(replica.getUsername() != null ? replica.getUsername()
+                            : primaryProperties.determineUsername())
+                    .password(replica.getPassword() != null ? replica.getPassword()
+                            : primaryProperties.determinePassword())
+                    .build();
+            pool.setPoolName("replica-" + replicas.size());
+            pool.setReadOnly(true);
+            pool.setConnectionTimeout(REPLICA_CONNECTION_TIMEOUT.toMillis());
+            pool.setLeakDetectionThreshold(primaryDataSource.getLeakDetectionThreshold());
+            pool.setMetricsTrackerFactory(metricsTrackerFactory);
+            replicas.add(pool);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas,
+                new ReadYourWritesTracker(properties.getReadYourWritesWindow()), properties.getHealthCheckInterval());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
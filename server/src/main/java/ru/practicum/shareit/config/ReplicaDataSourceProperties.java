@@ -0,0 +1,29 @@
+package ru.practicum.shareit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas of the primary database. Read-only transactions are spread over the replicas that pass
+ * the health check; a user's reads stay on the primary for {@code readYourWritesWindow} after their
+ * own write commits, which should cover the usual replication lag.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit.datasource")
+public class ReplicaDataSourceProperties {
+
+    private List<Replica> replicas = new ArrayList<>();
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+    private Duration healthCheckInterval = Duration.ofSeconds(10);
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
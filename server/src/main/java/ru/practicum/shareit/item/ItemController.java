@@ -1,14 +1,19 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RequiredArgsConstructor
@@ -17,6 +22,7 @@ import java.util.List;
 public class ItemController {
 
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String DEFAULT_PAGE_SIZE = "50";
     private final ItemService itemService;
     private final UserService userService;
 
@@ -27,13 +33,31 @@ public class ItemController {
     }
 
     @GetMapping("/{id}")
-    public ItemDto getItemById(@PathVariable Long id) {
-        return itemService.getItemById(id);
+    public ItemDto getItemById(@PathVariable Long id, WebRequest request) {
+        return request.checkNotModified(itemService.getItemETag(id)) ? null : itemService.getItemById(id);
+    }
+
+    @GetMapping("/{id}/availability")
+    public ItemAvailabilityDto getItemAvailability(@PathVariable Long id,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime from,
+                                                   @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                   LocalDateTime to) {
+        return itemService.getItemAvailability(id, from, to);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> getItemByText(@RequestParam(required = false) String text) {
-        return itemService.getItemByText(text);
+    public List<ItemDto> getItemByText(@RequestParam(required = false) String text,
+                                       @RequestParam(required = false)
+                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                       @RequestParam(required = false)
+                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                       @RequestParam(defaultValue = "0") Integer from,
+                                       @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) Integer size) {
+        if (start == null && end == null) {
+            return itemService.getItemByText(text, from, size);
+        }
+        return itemService.getFreeItemsByText(text, start, end, from, size);
     }
 
     @PostMapping
@@ -43,6 +67,13 @@ public class ItemController {
         return itemService.createItem(item, ownerId);
     }
 
+    @PostMapping("/batch")
+    public List<ItemBatchResultDto> createItems(@RequestBody List<ItemDtoRequest> items,
+                                                @RequestHeader(value = USER_ID_HEADER, required = false)
+                                                Long ownerId) {
+        return itemService.createItems(items, ownerId);
+    }
+
     @PatchMapping("{id}")
     public ItemDto updateItem(@RequestBody ItemDtoRequest item,
                               @RequestHeader(value = USER_ID_HEADER, required = false) Long ownerId,
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.Value;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+
+@Value
+public class ItemSavedEvent {
+    ItemSearchDocument document;
+    boolean created;
+}
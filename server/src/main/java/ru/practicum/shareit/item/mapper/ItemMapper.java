@@ -5,6 +5,7 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDtoRequestId;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
@@ -45,6 +46,19 @@ public class ItemMapper {
         return itemDto;
     }
 
+    public static ItemDto mapToItemDto(ItemSearchDocument document, BookingDto lastBooking, BookingDto nextBooking,
+                                       List<CommentDto> comments) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setId(document.getId());
+        itemDto.setName(document.getName());
+        itemDto.setDescription(document.getDescription());
+        itemDto.setAvailable(document.getAvailable());
+        itemDto.setLastBooking(lastBooking);
+        itemDto.setNextBooking(nextBooking);
+        itemDto.setComments(comments);
+        return itemDto;
+    }
+
     public static ItemDtoRequestId mapToItemDtoRequest(Item item) {
         ItemDtoRequestId itemDtoRequestId = new ItemDtoRequestId();
         itemDtoRequestId.setId(item.getId());
@@ -54,6 +68,16 @@ public class ItemMapper {
         return itemDtoRequestId;
     }
 
+    public static ItemSearchDocument mapToItemSearchDocument(Item item) {
+        ItemSearchDocument document = new ItemSearchDocument();
+        document.setId(item.getId());
+        document.setOwnerId(item.getOwner().getId());
+        document.setName(item.getName());
+        document.setDescription(item.getDescription());
+        document.setAvailable(item.getAvailable());
+        return document;
+    }
+
     public static List<ItemDto> mapToItemDto(List<Item> items) {
         return items.stream()
                 .map(ItemMapper::mapToItemDto)
@@ -2,9 +2,12 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -13,14 +16,25 @@ public interface ItemService {
 
     ItemDto createItem(ItemDtoRequest itemDtoRequest, Long userId);
 
+    List<ItemBatchResultDto> createItems(List<ItemDtoRequest> itemDtoRequests, Long userId);
+
     ItemDto updateItem(ItemDtoRequest itemDto, Long id, Long userId);
 
     void deleteItem(Long id);
 
-    List<ItemDto> getItemByText(String text);
+    List<ItemDto> getItemByText(String text, Integer from, Integer size);
+
+    List<ItemDto> getFreeItemsByText(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size);
 
     ItemDto getItemById(Long id);
 
+    /**
+     * Returns the ETag of the item as {@link #getItemById(Long)} would show it now, without loading the item.
+     */
+    String getItemETag(Long id);
+
     List<ItemDto> getItemsByOwnerId(Long ownerId);
 
+    ItemAvailabilityDto getItemAvailability(Long id, LocalDateTime from, LocalDateTime to);
+
 }
@@ -2,31 +2,44 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.model.enums.Status;
 import ru.practicum.shareit.booking.dto.BookingDto;
-import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.CommentRepository;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemRevisions;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
+import ru.practicum.shareit.item.storage.ItemSearchRepository;
+import ru.practicum.shareit.item.storage.LikeItemSearchRepository;
+import ru.practicum.shareit.pagination.CursorMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.user.storage.UserLookupCache;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -38,17 +51,27 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchRepository itemSearchRepository;
+    private final LikeItemSearchRepository likeItemSearchRepository;
+    private final ItemRevisions itemRevisions;
+    private final Optional<ItemSearchIndex> itemSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    // the gateway validates batches against the same limit, see ItemController.MAX_BATCH_SIZE
+    private static final int MAX_BATCH_SIZE = 5000;
+    private static final int MAX_NAME_LENGTH = 50;
+    private static final int MAX_DESCRIPTION_LENGTH = 255;
+    private static final String SEARCH_TOKEN_SEPARATOR = "[^\\p{L}\\p{N}]+";
     private static final LocalDateTime NOW_OFFSET = LocalDateTime.now().minusSeconds(3);
 
     @Override
     @Transactional
     public CommentDto addComment(CommentDtoRequest commentDtoRequest, Long itemId, Long userId) {
         log.info("Начало добавления комментария");
-        User owner = userRepository.findById(userId)
+        User owner = userLookupCache.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден"));
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Вещь с id = " + userId + " не найдена"));
@@ -58,6 +81,7 @@ public class ItemServiceImpl implements ItemService {
             throw new ValidationException("Пользователь " + userId + " не брал в аренду вещь " + itemId);
         }
         Comment comment = commentRepository.save(CommentMapper.mapToComment(commentDtoRequest, item, owner));
+        eventPublisher.publishEvent(new CommentAddedEvent(itemId));
         log.info("Комментарий с id {} добавлен к вещи {}", comment.getId(), item.getName());
         return CommentMapper.mapToCommentDto(comment);
     }
@@ -65,17 +89,55 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public ItemDto createItem(ItemDtoRequest itemDtoRequest, Long userId) {
-        User owner = userRepository.findById(userId)
+        User owner = userLookupCache.findById(userId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден"));
         ItemRequest request = null;
         if (itemDtoRequest.getRequestId() != null) {
             request = itemRequestRepository.findById(itemDtoRequest.getRequestId()).orElse(null);
         }
         Item item = itemRepository.save(ItemMapper.mapToItem(itemDtoRequest, owner, request));
+        eventPublisher.publishEvent(new ItemSavedEvent(ItemMapper.mapToItemSearchDocument(item), true));
         log.info("Вещь c id {} создана пользователем {}", item.getId(), owner.getId());
         return ItemMapper.mapToItemDto(item);
     }
 
+    @Override
+    @Transactional
+    public List<ItemBatchResultDto> createItems(List<ItemDtoRequest> itemDtoRequests, Long userId) {
+        if (itemDtoRequests == null || itemDtoRequests.isEmpty() || itemDtoRequests.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException("Пакет должен содержать от 1 до " + MAX_BATCH_SIZE + " вещей");
+        }
+        User owner = userLookupCache.findById(userId)
+                .orElseThrow(() -> new NotFoundException("Пользователь с id = " + userId + " не найден"));
+        List<Long> requestIds = itemDtoRequests.stream()
+                .filter(Objects::nonNull)
+                .map(ItemDtoRequest::getRequestId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<Long, ItemRequest> requests = itemRequestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        List<ItemBatchResultDto> results = new ArrayList<>();
+        List<ItemBatchResultDto> accepted = new ArrayList<>();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < itemDtoRequests.size(); i++) {
+            ItemDtoRequest itemDtoRequest = itemDtoRequests.get(i);
+            ItemBatchResultDto result = new ItemBatchResultDto(i, null, validateItem(itemDtoRequest));
+            results.add(result);
+            if (result.getError() == null) {
+                accepted.add(result);
+                items.add(ItemMapper.mapToItem(itemDtoRequest, owner, requests.get(itemDtoRequest.getRequestId())));
+            }
+        }
+        items = itemRepository.saveAll(items);
+        for (int i = 0; i < items.size(); i++) {
+            accepted.get(i).setId(items.get(i).getId());
+            eventPublisher.publishEvent(new ItemSavedEvent(ItemMapper.mapToItemSearchDocument(items.get(i)), true));
+        }
+        log.info("Пользователем {} создано {} вещей из {}", owner.getId(), items.size(), itemDtoRequests.size());
+        return results;
+    }
+
     @Override
     @Transactional
     public ItemDto updateItem(ItemDtoRequest itemDto, Long id, Long userId) {
@@ -95,6 +157,7 @@ public class ItemServiceImpl implements ItemService {
             item.setAvailable(itemDto.getAvailable());
         }
         item = itemRepository.save(item);
+        eventPublisher.publishEvent(new ItemSavedEvent(ItemMapper.mapToItemSearchDocument(item), false));
         log.info("Вещь {} обновлена", item.getName());
         return ItemMapper.mapToItemDto(item);
     }
@@ -104,80 +167,192 @@ public class ItemServiceImpl implements ItemService {
     public void deleteItem(Long id) {
         Item item = itemRepository.getReferenceById(id);
         itemRepository.delete(item);
+        eventPublisher.publishEvent(new ItemDeletedEvent(id));
+    }
+
+    @Override
+    public List<ItemDto> getItemByText(String text, Integer from, Integer size) {
+        if (from == null || from < 0) {
+            throw new ValidationException("Индекс первого элемента не может быть отрицательным");
+        }
+        Limit limit = CursorMapper.mapToLimit(size);
+        List<String> tokens = parseTokens(text);
+        if (tokens.isEmpty()) {
+            return new ArrayList<>();
+        }
+        ItemSearchIndex index = itemSearchIndex.filter(ItemSearchIndex::isReady).orElse(null);
+        if (index == null) {
+            return ItemMapper.mapToItemDto(itemSearchRepository.searchAvailable(tokens, from, limit.max()));
+        }
+        List<ItemDto> items = index.search(tokens, from, limit.max());
+        if (index.isVerify()) {
+            // LikeItemSearchRepository is the portable reference for the matching and ranking the index follows
+            List<ItemDto> expected = ItemMapper.mapToItemDto(
+                    likeItemSearchRepository.searchAvailable(tokens, from, limit.max()));
+            if (!items.equals(expected)) {
+                log.warn("Результаты поиска по индексу для \"{}\" расходятся с базой данных: {} вместо {}", text,
+                        items.stream().map(ItemDto::getId).toList(), expected.stream().map(ItemDto::getId).toList());
+                return expected;
+            }
+        }
+        return items;
     }
 
     @Override
-    public List<ItemDto> getItemByText(String text) {
-        if (text.isBlank()) {
+    public List<ItemDto> getFreeItemsByText(String text, LocalDateTime start, LocalDateTime end, Integer from,
+                                            Integer size) {
+        if (from == null || from < 0) {
+            throw new ValidationException("Индекс первого элемента не может быть отрицательным");
+        }
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new ValidationException("Некорректный период бронирования");
+        }
+        Limit limit = CursorMapper.mapToLimit(size);
+        List<String> tokens = parseTokens(text);
+        if (tokens.isEmpty()) {
             return new ArrayList<>();
         }
-        List<Item> items = itemRepository.findByNameContainingIgnoreCase(text);
-        items.addAll(itemRepository.findByDescriptionContainingIgnoreCase(text));
-        List<Item> result = items.stream()
-                .filter(Item::getAvailable)
+        return ItemMapper.mapToItemDto(itemSearchRepository.searchAvailableFree(tokens, start, end, from,
+                limit.max()));
+    }
+
+    private List<String> parseTokens(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase().split(SEARCH_TOKEN_SEPARATOR))
+                .filter(token -> !token.isEmpty())
+                .distinct()
                 .toList();
-        return ItemMapper.mapToItemDto(result);
+    }
+
+    private String validateItem(ItemDtoRequest itemDtoRequest) {
+        if (itemDtoRequest == null) {
+            return "Вещь не указана";
+        }
+        if (itemDtoRequest.getName() == null || itemDtoRequest.getName().isBlank()) {
+            return "Название вещи не может быть пустым";
+        }
+        if (itemDtoRequest.getName().length() > MAX_NAME_LENGTH) {
+            return "Название вещи не может быть длиннее " + MAX_NAME_LENGTH + " символов";
+        }
+        if (itemDtoRequest.getDescription() == null || itemDtoRequest.getDescription().isBlank()) {
+            return "Описание вещи не может быть пустым";
+        }
+        if (itemDtoRequest.getDescription().length() > MAX_DESCRIPTION_LENGTH) {
+            return "Описание вещи не может быть длиннее " + MAX_DESCRIPTION_LENGTH + " символов";
+        }
+        if (itemDtoRequest.getAvailable() == null) {
+            return "Статус доступности вещи должен быть указан";
+        }
+        return null;
     }
 
     @Override
     public ItemDto getItemById(Long id) {
-        Item item = itemRepository.findById(id)
+        ItemSearchDocument item = itemRepository.findDocumentById(id)
                 .orElseThrow(() -> new NotFoundException("Вещь с id = " + id + " не найдена"));
-        BookingDto lastBooking = null;
-        BookingDto nextBooking = null;
-        List<Booking> lastBookings = bookingRepository.findAllByItemIdAndStatusAndEndBeforeOrderByEndDesc(id,
-                Status.APPROVED, NOW_OFFSET);
-        if (!lastBookings.isEmpty()) {
-            lastBooking = BookingMapper.mapToBookingDto(lastBookings.getFirst());
-        }
-        List<Booking> nextBookings = bookingRepository.findAllByItemIdAndStartAfterOrderByStartAsc(id, LocalDateTime.now());
-        if (!nextBookings.isEmpty()) {
-            nextBooking = BookingMapper.mapToBookingDto(nextBookings.getFirst());
-        }
-        List<CommentDto> commentDtos = CommentMapper.mapToCommentDto(commentRepository.findAllByItemId(id));
+        List<Long> itemIds = List.of(id);
+        BookingDto lastBooking = bookingRepository.findLastApprovedBookingPerItem(itemIds, NOW_OFFSET).stream()
+                .findFirst()
+                .orElse(null);
+        BookingDto nextBooking = bookingRepository.findNextBookingPerItem(itemIds, LocalDateTime.now()).stream()
+                .findFirst()
+                .orElse(null);
+        List<CommentDto> commentDtos = commentRepository.findDtoByItemIdIn(itemIds);
         return ItemMapper.mapToItemDto(item, lastBooking, nextBooking, commentDtos);
     }
 
+    /**
+     * The tag holds the item's revision, the moment the last booking is counted from, and the start of the next
+     * booking, after which the next booking changes without any write. Both parts are read with short indexed
+     * queries, so a caller's current copy is confirmed before the booking and comment queries.
+     */
+    @Override
+    public String getItemETag(Long id) {
+        long revision = itemRevisions.findRevision(id)
+                .orElseThrow(() -> new NotFoundException("Вещь с id = " + id + " не найдена"));
+        long nextBookingStart = bookingRepository.findNextBookingStart(id, LocalDateTime.now())
+                .map(start -> start.toEpochSecond(ZoneOffset.UTC))
+                .orElse(0L);
+        return "\"" + revision + "-" + NOW_OFFSET.toEpochSecond(ZoneOffset.UTC) + "-" + nextBookingStart + "\"";
+    }
+
+    @Override
+    public ItemAvailabilityDto getItemAvailability(Long id, LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new ValidationException("Некорректный период календаря");
+        }
+        if (itemRepository.findDocumentById(id).isEmpty()) {
+            throw new NotFoundException("Вещь с id = " + id + " не найдена");
+        }
+        List<AvailabilityIntervalDto> busy = mergeBookedPeriods(bookingRepository.findBookedPeriods(id, from, to),
+                from, to);
+        List<AvailabilityIntervalDto> free = new ArrayList<>();
+        LocalDateTime freeStart = from;
+        for (AvailabilityIntervalDto interval : busy) {
+            if (freeStart.isBefore(interval.getStart())) {
+                free.add(new AvailabilityIntervalDto(freeStart, interval.getStart()));
+            }
+            freeStart = interval.getEnd();
+        }
+        if (freeStart.isBefore(to)) {
+            free.add(new AvailabilityIntervalDto(freeStart, to));
+        }
+        return new ItemAvailabilityDto(id, from, to, busy, free);
+    }
+
     @Override
     public List<ItemDto> getItemsByOwnerId(Long ownerId) {
         List<Item> items = itemRepository.findByOwnerIdOrderById(ownerId);
+        if (items.isEmpty()) {
+            return new ArrayList<>();
+        }
         List<Long> itemIds = items.stream()
                 .map(Item::getId)
                 .toList();
-        Map<Long, Booking> lastBookings = bookingRepository
-                .findByItemIdInAndStatusAndEndBeforeOrderByEndDesc(itemIds, Status.APPROVED, LocalDateTime.now())
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingDto> lastBookings = bookingRepository
+                .findLastApprovedBookingPerItem(itemIds, now)
                 .stream()
                 .collect(Collectors.toMap(
                         booking -> booking.getItem().getId(),
                         Function.identity()
                 ));
-        Map<Long, Booking> nextBookings = bookingRepository
-                .findByItemIdInAndStartAfterOrderByStartAsc(itemIds, LocalDateTime.now())
+        Map<Long, BookingDto> nextBookings = bookingRepository
+                .findNextBookingPerItem(itemIds, now)
                 .stream()
                 .collect(Collectors.toMap(
                         booking -> booking.getItem().getId(),
                         Function.identity()
                 ));
-        Map<Long, List<Comment>> commentsByItem = commentRepository.findAllByItemIdIn(itemIds)
+        Map<Long, List<CommentDto>> commentsByItem = commentRepository.findDtoByItemIdIn(itemIds)
                 .stream()
-                .collect(Collectors.groupingBy(
-                        comment -> comment.getItem().getId()
-                ));
+                .collect(Collectors.groupingBy(CommentDto::getItemId));
         return items.stream()
-                .map(item -> {
-                    BookingDto lastBookingDto = Optional.ofNullable(lastBookings.get(item.getId()))
-                            .map(BookingMapper::mapToBookingDto)
-                            .orElse(null);
-                    BookingDto nextBookingDto = Optional.ofNullable(nextBookings.get(item.getId()))
-                            .map(BookingMapper::mapToBookingDto)
-                            .orElse(null);
-                    List<CommentDto> commentDtos = Optional.ofNullable(commentsByItem.get(item.getId()))
-                            .orElse(Collections.emptyList())
-                            .stream()
-                            .map(CommentMapper::mapToCommentDto)
-                            .collect(Collectors.toList());
-                    return ItemMapper.mapToItemDto(item, lastBookingDto, nextBookingDto, commentDtos);
-                })
+                .map(item -> ItemMapper.mapToItemDto(item, lastBookings.get(item.getId()),
+                        nextBookings.get(item.getId()),
+                        commentsByItem.getOrDefault(item.getId(), new ArrayList<>())))
                 .collect(Collectors.toList());
     }
+
+    // periods come sorted by start; overlapping and adjacent ones are merged and clipped to [from, to)
+    private List<AvailabilityIntervalDto> mergeBookedPeriods(List<AvailabilityIntervalDto> periods,
+                                                             LocalDateTime from, LocalDateTime to) {
+        List<AvailabilityIntervalDto> merged = new ArrayList<>();
+        AvailabilityIntervalDto current = null;
+        for (AvailabilityIntervalDto period : periods) {
+            LocalDateTime start = period.getStart().isBefore(from) ? from : period.getStart();
+            LocalDateTime end = period.getEnd().isAfter(to) ? to : period.getEnd();
+            if (current != null && !start.isAfter(current.getEnd())) {
+                if (end.isAfter(current.getEnd())) {
+                    current.setEnd(end);
+                }
+                continue;
+            }
+            current = new AvailabilityIntervalDto(start, end);
+            merged.add(current);
+        }
+        return merged;
+    }
 }
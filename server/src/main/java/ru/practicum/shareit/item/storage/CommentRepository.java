@@ -1,7 +1,9 @@
 package ru.practicum.shareit.item.storage;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
@@ -9,8 +11,7 @@ import java.util.List;
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findAllByItemId(Long itemId);
-
-    List<Comment> findAllByItemIdIn(List<Long> itemIds);
-
+    @Query("select new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, c.item.id, a.name, c.created) "
+            + "from Comment c join c.author a where c.item.id in :itemIds order by c.id")
+    List<CommentDto> findDtoByItemIdIn(List<Long> itemIds);
 }
@@ -1,21 +1,41 @@
 package ru.practicum.shareit.item.storage;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findByOwnerIdOrderById(Long id);
 
-    List<Item> findByNameContainingIgnoreCase(String text);
-
-    List<Item> findByDescriptionContainingIgnoreCase(String text);
-
     List<Item> findAllByRequestIdIn(List<Long> requestIds);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Item> findAllByRequestId(Long requestId);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemSearchDocument(i.id, i.owner.id, i.name, i.description, "
+            + "i.available) from Item i where i.id > :id order by i.id")
+    List<ItemSearchDocument> findSearchDocumentsByIdGreaterThan(Long id, Limit limit);
+
+    @Cacheable(cacheNames = CacheConfig.ITEMS_CACHE, key = "#id", unless = "#result == null")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("select new ru.practicum.shareit.item.dto.ItemSearchDocument(i.id, i.owner.id, i.name, i.description, "
+            + "i.available) from Item i where i.id = :id")
+    Optional<ItemSearchDocument> findDocumentById(Long id);
+
+    @Query("select i.id from Item i where i.id in :ids")
+    List<Long> findIdsByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,115 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.item.event.CommentAddedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserUpdatedEvent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Revision of everything an item read returns: the item itself, its bookings and comments, and the names
+ * of their authors. The counter is raised in the transaction that makes the change. The column is not mapped
+ * on {@code Item}, so raising it neither conflicts with concurrent writers nor invalidates the second-level
+ * cache. Items changed in a transaction are collected and raised with one statement before it commits, so
+ * batch writes and imports add one statement rather than one per row; a new item starts at revision 0.
+ * User changes are applied at once, before the changing statements are flushed, so rows about to be
+ * deleted by cascade are still visible to them.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemRevisions {
+
+    // ids per statement, well below the bind parameter limits of the drivers
+    private static final int MAX_IDS_PER_UPDATE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<Long> findRevision(Long itemId) {
+        return jdbcTemplate.queryForList("SELECT revision FROM items WHERE id = ?", Long.class, itemId)
+                .stream()
+                .findFirst();
+    }
+
+    @EventListener
+    public void onItemSaved(ItemSavedEvent event) {
+        if (!event.isCreated()) {
+            increment(event.getDocument().getId());
+        }
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        increment(event.getItemId());
+    }
+
+    @EventListener
+    public void onCommentAdded(CommentAddedEvent event) {
+        increment(event.getItemId());
+    }
+
+    @EventListener
+    public void onUserUpdated(UserUpdatedEvent event) {
+        incrementReferencing(event.getUserId());
+    }
+
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        incrementReferencing(event.getUserId());
+    }
+
+    private void increment(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            incrementAll(List.of(itemId));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> changed = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, changed);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    incrementAll(changed);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ItemRevisions.this);
+                }
+            });
+            pending = changed;
+        }
+        pending.add(itemId);
+    }
+
+    private void incrementAll(Collection<Long> itemIds) {
+        List<Long> ids = new ArrayList<>(itemIds);
+        for (int from = 0; from < ids.size(); from += MAX_IDS_PER_UPDATE) {
+            List<Long> part = ids.subList(from, Math.min(from + MAX_IDS_PER_UPDATE, ids.size()));
+            jdbcTemplate.update("UPDATE items SET revision = revision + 1 WHERE id IN ("
+                    + String.join(", ", Collections.nCopies(part.size(), "?")) + ")", part.toArray());
+        }
+    }
+
+    // items showing the user's name in a booking or comment
+    private void incrementReferencing(Long userId) {
+        jdbcTemplate.update("UPDATE items SET revision = revision + 1 "
+                + "WHERE id IN (SELECT item_id FROM bookings WHERE booker_id = ?) "
+                + "OR id IN (SELECT item_id FROM comments WHERE author_id = ?)", userId, userId);
+    }
+}
@@ -0,0 +1,267 @@
+package ru.practicum.shareit.item.storage;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over names and descriptions of available items.
+ * Every word is indexed by its substrings of up to {@link #GRAM_LENGTH} characters: shorter query tokens are
+ * looked up as a single gram, longer ones intersect the postings of their trigrams. Candidates are then checked
+ * by substring, so matching and ranking are the same as in {@link LikeItemSearchRepository}.
+ * The index is filled from the database on startup and follows committed item changes afterwards.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.index.enabled", havingValue = "true")
+public class ItemSearchIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+    private static final String TOKEN_SEPARATOR = "[^\\p{L}\\p{N}]+";
+    private static final long[] EMPTY = new long[0];
+
+    private final ItemRepository itemRepository;
+    @Getter
+    private final boolean verify;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedItem> items = new HashMap<>();
+    private final Map<Long, LongPostingList> itemsByOwner = new HashMap<>();
+    private final Map<String, LongPostingList> gramPostings = new HashMap<>();
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.index.verify:false}") boolean verify) {
+        this.itemRepository = itemRepository;
+        this.verify = verify;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            items.clear();
+            itemsByOwner.clear();
+            gramPostings.clear();
+            long lastId = 0;
+            List<ItemSearchDocument> chunk;
+            do {
+                chunk = itemRepository.findSearchDocumentsByIdGreaterThan(lastId, Limit.of(REBUILD_CHUNK_SIZE));
+                for (ItemSearchDocument document : chunk) {
+                    add(document);
+                    lastId = document.getId();
+                }
+            } while (chunk.size() == REBUILD_CHUNK_SIZE);
+            ready = true;
+            log.info("Поисковый индекс вещей построен, проиндексировано {} вещей", items.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemSaved(ItemSavedEvent event) {
+        ItemSearchDocument document = event.getDocument();
+        lock.writeLock().lock();
+        try {
+            remove(document.getId());
+            add(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemDeleted(ItemDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            remove(event.getItemId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            LongPostingList owned = itemsByOwner.get(event.getUserId());
+            if (owned != null) {
+                for (long id : owned.toArray()) {
+                    remove(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ItemDto> search(List<String> tokens, int from, int size) {
+        lock.readLock().lock();
+        try {
+            long[] candidates = null;
+            for (String token : tokens) {
+                long[] matches = candidatesFor(token);
+                candidates = candidates == null ? matches : LongPostingList.intersect(candidates, matches);
+                if (candidates.length == 0) {
+                    return new ArrayList<>();
+                }
+            }
+            List<ScoredItem> found = new ArrayList<>();
+            for (long id : candidates) {
+                IndexedItem item = items.get(id);
+                int score = score(item, tokens);
+                if (score > 0) {
+                    found.add(new ScoredItem(item, score));
+                }
+            }
+            return found.stream()
+                    .sorted(Comparator.comparingInt(ScoredItem::getScore).reversed()
+                            .thenComparingLong(scored -> scored.getItem().getId()))
+                    .skip(from)
+                    .limit(size)
+                    .map(scored -> scored.getItem().toItemDto())
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] candidatesFor(String token) {
+        if (token.length() < GRAM_LENGTH) {
+            LongPostingList postings = gramPostings.get(token);
+            return postings == null ? EMPTY : postings.toArray();
+        }
+        long[] result = null;
+        for (String gram : grams(token, GRAM_LENGTH)) {
+            LongPostingList postings = gramPostings.get(gram);
+            if (postings == null) {
+                return EMPTY;
+            }
+            result = result == null ? postings.toArray() : LongPostingList.intersect(result, postings.toArray());
+            if (result.length == 0) {
+                return EMPTY;
+            }
+        }
+        return result;
+    }
+
+    private int score(IndexedItem item, List<String> tokens) {
+        int score = 0;
+        for (String token : tokens) {
+            boolean inName = item.getLowerName().contains(token);
+            boolean inDescription = item.getLowerDescription().contains(token);
+            if (!inName && !inDescription) {
+                return 0;
+            }
+            score += (inName ? 2 : 0) + (inDescription ? 1 : 0);
+        }
+        return score;
+    }
+
+    private void add(ItemSearchDocument document) {
+        if (!Boolean.TRUE.equals(document.getAvailable())) {
+            return;
+        }
+        IndexedItem item = new IndexedItem(document.getId(), document.getOwnerId(), document.getName(),
+                document.getDescription(), document.getName().toLowerCase(),
+                document.getDescription().toLowerCase());
+        items.put(item.getId(), item);
+        itemsByOwner.computeIfAbsent(item.getOwnerId(), key -> new LongPostingList()).add(item.getId());
+        for (String gram : indexGrams(item)) {
+            gramPostings.computeIfAbsent(gram, key -> new LongPostingList()).add(item.getId());
+        }
+    }
+
+    private void remove(long id) {
+        IndexedItem item = items.remove(id);
+        if (item == null) {
+            return;
+        }
+        removePosting(itemsByOwner, item.getOwnerId(), id);
+        for (String gram : indexGrams(item)) {
+            removePosting(gramPostings, gram, id);
+        }
+    }
+
+    private static <K> void removePosting(Map<K, LongPostingList> postings, K key, long id) {
+        LongPostingList list = postings.get(key);
+        if (list != null) {
+            list.remove(id);
+            if (list.isEmpty()) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    private static Set<String> indexGrams(IndexedItem item) {
+        Set<String> grams = new HashSet<>();
+        for (String text : List.of(item.getLowerName(), item.getLowerDescription())) {
+            for (String token : text.split(TOKEN_SEPARATOR)) {
+                for (int length = 1; length <= GRAM_LENGTH; length++) {
+                    grams.addAll(grams(token, length));
+                }
+            }
+        }
+        return grams;
+    }
+
+    private static Set<String> grams(String token, int length) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + length <= token.length(); i++) {
+            grams.add(token.substring(i, i + length));
+        }
+        return grams;
+    }
+
+    @lombok.Value
+    private static class IndexedItem {
+        long id;
+        long ownerId;
+        String name;
+        String description;
+        String lowerName;
+        String lowerDescription;
+
+        ItemDto toItemDto() {
+            ItemDto itemDto = new ItemDto();
+            itemDto.setId(id);
+            itemDto.setName(name);
+            itemDto.setDescription(description);
+            itemDto.setAvailable(true);
+            return itemDto;
+        }
+    }
+
+    @lombok.Value
+    private static class ScoredItem {
+        IndexedItem item;
+        int score;
+    }
+}
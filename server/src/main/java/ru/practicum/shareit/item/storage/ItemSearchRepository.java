@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.storage;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemSearchRepository {
+
+    List<Item> searchAvailable(List<String> tokens, int from, int size);
+
+    /**
+     * Same as {@link #searchAvailable}, keeping only items without a waiting or approved booking
+     * that intersects [start, end).
+     */
+    List<Item> searchAvailableFree(List<String> tokens, LocalDateTime start, LocalDateTime end, int from, int size);
+}
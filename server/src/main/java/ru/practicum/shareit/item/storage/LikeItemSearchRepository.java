@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item.storage;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.enums.Status;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Portable substring search, used in {@code shareit.search.mode=like}. It is registered in every mode because
+ * the in-memory {@link ItemSearchIndex} follows the same semantics and is verified against it.
+ */
+@Repository
+public class LikeItemSearchRepository implements ItemSearchRepository {
+
+    private static final String FREE_CONDITION = " and not exists (select b.id from Booking b where b.item = i "
+            + "and b.status in :statuses and b.start < :end and b.end > :start)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Item> searchAvailable(List<String> tokens, int from, int size) {
+        return createQuery(tokens, "")
+                .setFirstResult(from)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    @Override
+    public List<Item> searchAvailableFree(List<String> tokens, LocalDateTime start, LocalDateTime end, int from,
+                                          int size) {
+        return createQuery(tokens, FREE_CONDITION)
+                .setParameter("statuses", Status.ACTIVE)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .setFirstResult(from)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    private TypedQuery<Item> createQuery(List<String> tokens, String extraCondition) {
+        List<String> conditions = new ArrayList<>();
+        List<String> scores = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            conditions.add("(lower(i.name) like :token" + i + " or lower(i.description) like :token" + i + ")");
+            scores.add("case when lower(i.name) like :token" + i + " then 2 else 0 end");
+            scores.add("case when lower(i.description) like :token" + i + " then 1 else 0 end");
+        }
+        String jpql = "select i from Item i where i.available = true and " + String.join(" and ", conditions)
+                + extraCondition + " order by " + String.join(" + ", scores) + " desc, i.id";
+        TypedQuery<Item> query = entityManager.createQuery(jpql, Item.class);
+        for (int i = 0; i < tokens.size(); i++) {
+            query.setParameter("token" + i, "%" + tokens.get(i) + "%");
+        }
+        return query;
+    }
+}
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.storage;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Substring search on PostgreSQL with the matching and ranking of {@link LikeItemSearchRepository}: every token
+ * must occur in the name or the description, and name matches rank above description matches. The
+ * {@code '%token%'} patterns are answered by the pg_trgm GIN indexes on available items for tokens of three
+ * characters and more.
+ */
+@Primary
+@Repository
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "trigram", matchIfMissing = true)
+public class TrigramItemSearchRepository implements ItemSearchRepository {
+
+    // The range and status conditions repeat the bookings_no_overlap exclusion constraint,
+    // so the anti-join is answered by its GiST index.
+    private static final String FREE_CONDITION = """
+             AND NOT EXISTS (
+                SELECT 1 FROM bookings b
+                WHERE b.item_id = i.id AND b.status IN ('WAITING', 'APPROVED')
+                    AND tsrange(b.start_date, b.end_date)
+                        && tsrange(CAST(:start AS timestamp), CAST(:end AS timestamp))
+            )""";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> searchAvailable(List<String> tokens, int from, int size) {
+        return createQuery(tokens, "")
+                .setParameter("size", size)
+                .setParameter("from", from)
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Item> searchAvailableFree(List<String> tokens, LocalDateTime start, LocalDateTime end, int from,
+                                          int size) {
+        return createQuery(tokens, FREE_CONDITION)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .setParameter("size", size)
+                .setParameter("from", from)
+                .getResultList();
+    }
+
+    private Query createQuery(List<String> tokens, String extraCondition) {
+        List<String> conditions = new ArrayList<>();
+        List<String> scores = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            conditions.add("(lower(i.name) LIKE :token" + i + " OR lower(i.description) LIKE :token" + i + ")");
+            scores.add("CASE WHEN lower(i.name) LIKE :token" + i + " THEN 2 ELSE 0 END");
+            scores.add("CASE WHEN lower(i.description) LIKE :token" + i + " THEN 1 ELSE 0 END");
+        }
+        String sql = "SELECT i.id, i.owner_id, i.name, i.description, i.is_available, i.request_id FROM items i "
+                + "WHERE i.is_available AND " + String.join(" AND ", conditions) + extraCondition
+                + " ORDER BY " + String.join(" + ", scores) + " DESC, i.id LIMIT :size OFFSET :from";
+        Query query = entityManager.createNativeQuery(sql, Item.class);
+        for (int i = 0; i < tokens.size(); i++) {
+            query.setParameter("token" + i, "%" + tokens.get(i) + "%");
+        }
+        return query;
+    }
+}
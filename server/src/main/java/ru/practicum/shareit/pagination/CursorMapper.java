@@ -0,0 +1,67 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.pagination.dto.PageDto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public class CursorMapper {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final int MAX_PAGE_SIZE = 500;
+    private static final String ID_PROPERTY = "id";
+    private static final String SEPARATOR = ",";
+
+    public static ScrollPosition mapToScrollPosition(String cursor, String timeProperty) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            LocalDateTime time = LocalDateTime.parse(decoded.substring(0, separator));
+            Long id = Long.parseLong(decoded.substring(separator + 1));
+            return ScrollPosition.forward(Map.of(timeProperty, time, ID_PROPERTY, id));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Некорректный курсор " + cursor);
+        }
+    }
+
+    public static Limit mapToLimit(Integer size) {
+        if (size == null || size <= 0) {
+            throw new ValidationException("Размер страницы должен быть положительным");
+        }
+        return Limit.of(Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    public static <E, T> PageDto<T> mapToPageDto(Window<E> window, String timeProperty, Function<E, T> mapper) {
+        List<T> items = window.stream()
+                .map(mapper)
+                .toList();
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            KeysetScrollPosition position = (KeysetScrollPosition) window.positionAt(window.size() - 1);
+            String raw = position.getKeys().get(timeProperty) + SEPARATOR + position.getKeys().get(ID_PROPERTY);
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        return new PageDto<>(items, nextCursor);
+    }
+
+    public static <T> ResponseEntity<List<T>> mapToResponseEntity(PageDto<T> page) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            builder.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return builder.body(page.getItems());
+    }
+}
@@ -1,7 +1,9 @@
 package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.CursorMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRequest;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -14,6 +16,7 @@ import java.util.List;
 public class ItemRequestController {
 
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String DEFAULT_PAGE_SIZE = "50";
     private final ItemRequestService itemRequestService;
 
     @PostMapping
@@ -28,8 +31,10 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllRequests(@RequestHeader(value = USER_ID_HEADER) Long requestorId) {
-        return itemRequestService.getAllRequest(requestorId);
+    public ResponseEntity<List<ItemRequestDto>> getAllRequests(@RequestHeader(value = USER_ID_HEADER) Long requestorId,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = DEFAULT_PAGE_SIZE) Integer size) {
+        return CursorMapper.mapToResponseEntity(itemRequestService.getAllRequest(requestorId, cursor, size));
     }
 
     @GetMapping("/{requestId}")
@@ -9,8 +9,9 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 public class ItemRequestMapper {
@@ -38,10 +39,7 @@ public class ItemRequestMapper {
     }
 
     public static ItemRequestDto mapToItemRequestDto(ItemRequest itemRequest, List<Item> items) {
-        List<ItemDtoRequestId> itemDtoRequestIds = ItemMapper.mapToItemDtoRequest(items
-                .stream()
-                .filter(item -> Objects.equals(item.getRequest(), itemRequest))
-                .toList());
+        List<ItemDtoRequestId> itemDtoRequestIds = ItemMapper.mapToItemDtoRequest(items);
         ItemRequestDto itemRequestDto = new ItemRequestDto();
         itemRequestDto.setId(itemRequest.getId());
         itemRequestDto.setDescription(itemRequest.getDescription());
@@ -50,14 +48,20 @@ public class ItemRequestMapper {
         return itemRequestDto;
     }
 
+    public static ItemRequestDto mapToItemRequestDto(ItemRequest itemRequest, Map<Long, List<Item>> itemsByRequest) {
+        return mapToItemRequestDto(itemRequest,
+                itemsByRequest.getOrDefault(itemRequest.getId(), Collections.emptyList()));
+    }
+
     public static List<ItemRequestDto> mapToItemRequestDto(List<ItemRequest> itemRequests, List<Item> items) {
+        Map<Long, List<Item>> itemsByRequest = groupByRequestId(items);
         return itemRequests.stream()
-                .map(itemRequest -> {
-                    List<Item> requestItems = items.stream()
-                            .filter(item -> Objects.equals(item.getRequest(), itemRequest))
-                            .toList();
-                    return mapToItemRequestDto(itemRequest, requestItems);
-                })
+                .map(itemRequest -> mapToItemRequestDto(itemRequest, itemsByRequest))
                 .toList();
     }
+
+    public static Map<Long, List<Item>> groupByRequestId(List<Item> items) {
+        return items.stream()
+                .collect(Collectors.groupingBy(item -> item.getRequest().getId()));
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import ru.practicum.shareit.pagination.dto.PageDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRequest;
 
@@ -11,7 +12,7 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getRequestsByRequestorId(Long requestorId);
 
-    List<ItemRequestDto> getAllRequest(Long userId);
+    PageDto<ItemRequestDto> getAllRequest(Long userId, String cursor, Integer size);
 
     ItemRequestDto getRequestById(Long requestId, Long userId);
 }
@@ -2,20 +2,24 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.pagination.CursorMapper;
+import ru.practicum.shareit.pagination.dto.PageDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRequest;
 import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.storage.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.storage.UserRepository;
+import ru.practicum.shareit.user.storage.UserLookupCache;
 
 import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
@@ -23,14 +27,15 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
 
-    private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
     private final ItemRequestRepository itemRequestRepository;
     private final ItemRepository itemRepository;
+    private static final String CREATED_PROPERTY = "created";
 
     @Override
     @Transactional
     public ItemRequestDto createRequest(ItemRequestDtoRequest itemRequestDto, Long requestorId) {
-        User user = userRepository.findById(requestorId)
+        User user = userLookupCache.findById(requestorId)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + requestorId + " не найден"));
         ItemRequest itemRequest = itemRequestRepository.save(ItemRequestMapper.mapToItemRequest(itemRequestDto, user));
         return ItemRequestMapper.mapToItemRequestDto(itemRequest);
@@ -39,8 +44,9 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public List<ItemRequestDto> getRequestsByRequestorId(Long requestorId) {
         log.info("Получение запроса по id пользователя");
-        userRepository.findById(requestorId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id " + requestorId + " не найден"));
+        if (!userLookupCache.existsById(requestorId)) {
+            throw new NotFoundException("Пользователь с id " + requestorId + " не найден");
+        }
         List<ItemRequest> requests = itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(requestorId);
         List<Long> requestIds = requests
                 .stream()
@@ -51,17 +57,25 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     }
 
     @Override
-    public List<ItemRequestDto> getAllRequest(Long requestorId) {
+    public PageDto<ItemRequestDto> getAllRequest(Long requestorId, String cursor, Integer size) {
         log.info("Получение всех запросов");
-        List<ItemRequest> itemRequests = itemRequestRepository.findAllByRequestorIdNotOrderByCreatedDesc(requestorId);
-        return ItemRequestMapper.mapToItemRequestDto(itemRequests);
+        Window<ItemRequest> itemRequests = itemRequestRepository.findByRequestorIdNotOrderByCreatedDescIdDesc(
+                requestorId, CursorMapper.mapToScrollPosition(cursor, CREATED_PROPERTY), CursorMapper.mapToLimit(size));
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .toList();
+        Map<Long, List<Item>> itemsByRequest = ItemRequestMapper.groupByRequestId(
+                itemRepository.findAllByRequestIdIn(requestIds));
+        return CursorMapper.mapToPageDto(itemRequests, CREATED_PROPERTY, itemRequest ->
+                ItemRequestMapper.mapToItemRequestDto(itemRequest, itemsByRequest));
     }
 
     @Override
     public ItemRequestDto getRequestById(Long requestId, Long userId) {
         log.info("Получение запроса по id");
-        userRepository.findById(userId)
-                .orElseThrow(() -> new NotFoundException("Пользователь с id " + userId + " не найден"));
+        if (!userLookupCache.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id " + userId + " не найден");
+        }
         ItemRequest itemRequest = itemRequestRepository.findById(requestId)
                 .orElseThrow(() -> new NotFoundException("Запрос с id " + requestId + " не найден"));
         List<Item> items = itemRepository.findAllByRequestId(requestId);
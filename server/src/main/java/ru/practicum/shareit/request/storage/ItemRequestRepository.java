@@ -1,5 +1,8 @@
 package ru.practicum.shareit.request.storage;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
@@ -9,5 +12,5 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
 
     List<ItemRequest> findAllByRequestorIdOrderByCreatedDesc(Long requestorId);
 
-    List<ItemRequest> findAllByRequestorIdNotOrderByCreatedDesc(Long userId);
+    Window<ItemRequest> findByRequestorIdNotOrderByCreatedDescIdDesc(Long userId, ScrollPosition position, Limit limit);
 }
@@ -3,12 +3,18 @@ package ru.practicum.shareit.user.service;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import ru.practicum.shareit.config.CacheConfig;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.mapper.UserMapper;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.event.UserUpdatedEvent;
+import ru.practicum.shareit.user.storage.UserLookupCache;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.util.List;
@@ -20,6 +26,8 @@ import java.util.List;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository repository;
+    private final UserLookupCache userLookupCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public List<UserDto> getUsers() {
@@ -28,8 +36,9 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS_CACHE, key = "#id")
     public UserDto getUserById(Long id) {
-        User user = repository.findById(id)
+        User user = userLookupCache.findById(id)
                 .orElseThrow(() -> new NotFoundException("Пользователь с id " + id + " не найден"));
         return UserMapper.mapToUserDto(user);
     }
@@ -61,6 +70,8 @@ public class UserServiceImpl implements UserService {
                 throw new ConflictException("Email уже существует");
             }
         }
+        userLookupCache.evict(id);
+        eventPublisher.publishEvent(new UserUpdatedEvent(id));
         log.info("Пользователь с id = {} обновлен", user.getId());
         return UserMapper.mapToUserDto(repository.save(user));
     }
@@ -70,5 +81,7 @@ public class UserServiceImpl implements UserService {
     public void deleteUser(Long id) {
         User user = repository.getReferenceById(id);
         repository.delete(user);
+        userLookupCache.evict(id);
+        eventPublisher.publishEvent(new UserDeletedEvent(id));
     }
 }
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.user.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * User lookups shared by controllers and services within one HTTP request. Loaded users and ids known
+ * to exist are kept in a request attribute. Without open-in-view every transaction has its own persistence
+ * context, so a user checked by the controller is not loaded again by the service that follows. Existence
+ * checks for a user seen earlier in the request need no query, and a miss uses {@code existsById} instead
+ * of loading the row.
+ * Users present in the process-wide users cache are known to exist without a query.
+ * Outside of a web request every call goes to the repository.
+ */
+@Component
+public class UserLookupCache {
+
+    private static final String ATTRIBUTE = UserLookupCache.class.getName();
+
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+    private final Counter hits;
+    private final Counter misses;
+    private final DistributionSummary savedPerRequest;
+
+    public UserLookupCache(UserRepository userRepository, CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.cacheManager = cacheManager;
+        this.hits = Counter.builder("shareit.user.lookups")
+                .description("Поиск пользователей в кэше запроса")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("shareit.user.lookups")
+                .description("Поиск пользователей в кэше запроса")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.savedPerRequest = DistributionSummary.builder("shareit.user.lookups.saved")
+                .description("Запросы пользователей, сэкономленные за один HTTP-запрос")
+                .register(meterRegistry);
+    }
+
+    public Optional<User> findById(Long id) {
+        Lookups lookups = currentLookups();
+        if (lookups == null) {
+            return userRepository.findById(id);
+        }
+        User cached = lookups.users.get(id);
+        if (cached != null) {
+            lookups.hit();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        Optional<User> user = userRepository.findById(id);
+        user.ifPresent(found -> {
+            lookups.users.put(id, found);
+            lookups.existing.add(id);
+        });
+        return user;
+    }
+
+    public boolean existsById(Long id) {
+        Cache users = cacheManager.getCache(CacheConfig.USERS_CACHE);
+        boolean cached = users != null && users.get(id) != null;
+        Lookups lookups = currentLookups();
+        if (lookups == null) {
+            return cached || userRepository.existsById(id);
+        }
+        if (cached || lookups.existing.contains(id)) {
+            lookups.hit();
+            return true;
+        }
+        misses.increment();
+        boolean exists = userRepository.existsById(id);
+        if (exists) {
+            lookups.existing.add(id);
+        }
+        return exists;
+    }
+
+    public void evict(Long id) {
+        Lookups lookups = currentLookups();
+        if (lookups != null) {
+            lookups.users.remove(id);
+            lookups.existing.remove(id);
+        }
+    }
+
+    private Lookups currentLookups() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Lookups lookups = (Lookups) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (lookups == null) {
+            Lookups created = new Lookups();
+            attributes.setAttribute(ATTRIBUTE, created, RequestAttributes.SCOPE_REQUEST);
+            attributes.registerDestructionCallback(ATTRIBUTE, () -> savedPerRequest.record(created.saved),
+                    RequestAttributes.SCOPE_REQUEST);
+            lookups = created;
+        }
+        return lookups;
+    }
+
+    private class Lookups {
+        final Map<Long, User> users = new HashMap<>();
+        final Set<Long> existing = new HashSet<>();
+        int saved;
+
+        void hit() {
+            saved++;
+            hits.increment();
+        }
+    }
+}
@@ -0,0 +1 @@
+SELECT setval('items_seq', COALESCE((SELECT MAX(id) FROM items), 0) + 1);
@@ -0,0 +1,18 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Overlapping active bookings were accepted before this constraint, and exclusion constraints cannot be
+-- added NOT VALID. Every active booking that overlaps an earlier active booking of the same item (by start,
+-- then id) is rejected, so the earliest booking of each overlapping group is kept.
+UPDATE bookings b
+SET status = 'REJECTED'
+WHERE b.status IN ('WAITING', 'APPROVED')
+  AND EXISTS (
+    SELECT 1 FROM bookings e
+    WHERE e.item_id = b.item_id AND e.id <> b.id AND e.status IN ('WAITING', 'APPROVED')
+      AND e.start_date < b.end_date AND e.end_date > b.start_date
+      AND (e.start_date < b.start_date OR (e.start_date = b.start_date AND e.id < b.id))
+  );
+
+ALTER TABLE bookings
+    ADD CONSTRAINT bookings_no_overlap EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+    WHERE (status IN ('WAITING', 'APPROVED'));
@@ -0,0 +1,142 @@
+package benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestDtoRequest;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Compares GET /items/{id} and GET /requests/{id} with a warm second-level cache against the same calls
+ * with every region evicted before each request. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(classes = ShareItServer.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Slf4j
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class SecondLevelCacheBenchmarkTest {
+
+    static final int WARMUP = 100;
+    static final int ITERATIONS = 1000;
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    ItemRequestService itemRequestService;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void benchmarkItemAndRequestLookups() throws Exception {
+        UserDto owner = userService.createUser(new UserDto(null, "owner", "benchmark-owner@test.com"));
+        UserDto requestor = userService.createUser(new UserDto(null, "requestor", "benchmark-requestor@test.com"));
+        try {
+            ItemRequestDto request = itemRequestService.createRequest(new ItemRequestDtoRequest("need a drill"),
+                    requestor.getId());
+            ItemDto item = itemService.createItem(new ItemDtoRequest("drill", "cordless drill", true,
+                    request.getId()), owner.getId());
+            LocalDateTime now = LocalDateTime.now();
+            BookingDto past = bookingService.createBooking(new BookingDtoRequest(item.getId(), now.minusDays(2),
+                    now.minusDays(1)), requestor.getId());
+            bookingService.approveBooking(past.getId(), true, owner.getId());
+            bookingService.createBooking(new BookingDtoRequest(item.getId(), now.plusDays(1), now.plusDays(2)),
+                    requestor.getId());
+
+            RequestBuilder getItem = get("/items/" + item.getId());
+            RequestBuilder getRequest = get("/requests/" + request.getId())
+                    .header("X-Sharer-User-Id", requestor.getId());
+
+            Result itemCold = measure(getItem, true);
+            Result itemWarm = measure(getItem, false);
+            Result requestCold = measure(getRequest, true);
+            Result requestWarm = measure(getRequest, false);
+            log.info("GET /items/{id}: без кэша {}, с кэшем {}", itemCold, itemWarm);
+            log.info("GET /requests/{id}: без кэша {}, с кэшем {}", requestCold, requestWarm);
+
+            Assertions.assertThat(itemWarm.statementsPerCall).isLessThan(itemCold.statementsPerCall);
+            Assertions.assertThat(requestWarm.statementsPerCall).isLessThan(requestCold.statementsPerCall);
+        } finally {
+            userService.deleteUser(owner.getId());
+            userService.deleteUser(requestor.getId());
+        }
+    }
+
+    private Result measure(RequestBuilder request, boolean evict) throws Exception {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            for (int i = 0; i < WARMUP; i++) {
+                call(request, sessionFactory, evict);
+            }
+            statistics.clear();
+            long[] durations = new long[ITERATIONS];
+            for (int i = 0; i < ITERATIONS; i++) {
+                durations[i] = call(request, sessionFactory, evict);
+            }
+            Arrays.sort(durations);
+            return new Result((double) statistics.getPrepareStatementCount() / ITERATIONS,
+                    durations[ITERATIONS / 2] / 1000, durations[(int) Math.ceil(ITERATIONS * 0.99) - 1] / 1000);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
+    private long call(RequestBuilder request, SessionFactory sessionFactory, boolean evict) throws Exception {
+        if (evict) {
+            sessionFactory.getCache().evictAllRegions();
+        }
+        long start = System.nanoTime();
+        mvc.perform(request).andExpect(status().isOk());
+        return System.nanoTime() - start;
+    }
+
+    private record Result(double statementsPerCall, long p50Micros, long p99Micros) {
+        @Override
+        public String toString() {
+            return String.format("запросов к БД %.1f, p50 %d мкс, p99 %d мкс", statementsPerCall, p50Micros,
+                    p99Micros);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package benchmark;
+
+import lombok.extern.slf4j.Slf4j;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs GET /items/{id} over real HTTP from 5000 concurrent connections against the server started with
+ * platform request threads and with virtual threads. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@Slf4j
+public class VirtualThreadLoadBenchmarkTest {
+
+    static final int CONNECTIONS = Integer.getInteger("connections", 5000);
+    static final int REQUESTS_PER_CONNECTION = 2;
+    static final int WARMUP_REQUESTS = 2000;
+
+    @Test
+    void benchmarkPlatformAgainstVirtualThreads() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+        log.info("5000 соединений, потоки платформы: {}", platform);
+        log.info("5000 соединений, виртуальные потоки: {}", virtual);
+
+        Assertions.assertThat(platform.failed).isZero();
+        Assertions.assertThat(virtual.failed).isZero();
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        // command line arguments, unlike default properties, take precedence over application.properties
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ShareItServer.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:load-" + virtualThreads,
+                        "--logging.level.org.springframework.transaction.interceptor=INFO",
+                        "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=INFO",
+                        "--spring.jpa.show-sql=false")) {
+            UserDto owner = context.getBean(UserService.class)
+                    .createUser(new UserDto(null, "owner", "load@test.com"));
+            ItemDto item = context.getBean(ItemService.class)
+                    .createItem(new ItemDtoRequest("drill", "cordless drill", true, null), owner.getId());
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/items/"
+                    + item.getId())).timeout(Duration.ofMinutes(5)).build();
+
+            try (HttpClient client = HttpClient.newHttpClient()) {
+                for (int i = 0; i < WARMUP_REQUESTS; i++) {
+                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                }
+            }
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            AtomicInteger failed = new AtomicInteger();
+            Map<String, Integer> errors = new ConcurrentHashMap<>();
+            long[] durations = new long[CONNECTIONS * REQUESTS_PER_CONNECTION];
+            long start = System.nanoTime();
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+                 HttpClient client = HttpClient.newBuilder()
+                         .version(HttpClient.Version.HTTP_1_1)
+                         .executor(clients)
+                         .build()) {
+                // the client opens a new connection whenever none is idle, so 5000 callers keep 5000 sockets
+                List<Future<?>> connections = new ArrayList<>();
+                for (int c = 0; c < CONNECTIONS; c++) {
+                    int connection = c;
+                    connections.add(clients.submit(() -> {
+                        for (int r = 0; r < REQUESTS_PER_CONNECTION; r++) {
+                            long requestStart = System.nanoTime();
+                            try {
+                                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() != 200) {
+                                    failed.incrementAndGet();
+                                }
+                            } catch (Exception e) {
+                                failed.incrementAndGet();
+                                errors.merge(e.getClass().getSimpleName() + ": " + e.getMessage(), 1, Integer::sum);
+                            }
+                            durations[connection * REQUESTS_PER_CONNECTION + r] = System.nanoTime() - requestStart;
+                        }
+                    }));
+                }
+                for (Future<?> connection : connections) {
+                    connection.get();
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            errors.forEach((error, count) -> log.warn("{} x {}", count, error));
+            Arrays.sort(durations);
+            return new Result(durations.length * 1_000_000_000L / elapsed,
+                    durations[durations.length / 2] / 1_000_000,
+                    durations[(int) Math.ceil(durations.length * 0.99) - 1] / 1_000_000,
+                    threads.getPeakThreadCount(), failed.get());
+        }
+    }
+
+    private record Result(long requestsPerSecond, long p50Millis, long p99Millis, int peakPlatformThreads,
+                          int failed) {
+        @Override
+        public String toString() {
+            return String.format("%d запросов/с, p50 %d мс, p99 %d мс, потоков платформы %d, ошибок %d",
+                    requestsPerSecond, p50Millis, p99Millis, peakPlatformThreads, failed);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package booking;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,26 +11,41 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.booking.dto.BookerDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingImportResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingItemDto;
+import ru.practicum.shareit.booking.model.enums.ExportFormat;
 import ru.practicum.shareit.booking.model.enums.Status;
+import ru.practicum.shareit.booking.service.BookingImportService;
 import ru.practicum.shareit.booking.service.BookingService;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.dto.PageDto;
+import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
-import ru.practicum.shareit.user.model.User;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -41,6 +57,12 @@ public class BookingControllerTest {
     @Mock
     BookingService bookingService;
 
+    @Mock
+    BookingImportService bookingImportService;
+
+    @Mock
+    UserService userService;
+
     private MockMvc mvc;
 
     @InjectMocks
@@ -49,8 +71,8 @@ public class BookingControllerTest {
     private UserDto userDto;
     private BookingDto responseDto;
     private BookingDtoRequest requestDto;
-    private Item item;
-    private User user;
+    private BookingItemDto item;
+    private BookerDto booker;
     private LocalDateTime now;
 
     @BeforeEach
@@ -61,11 +83,11 @@ public class BookingControllerTest {
                 .standaloneSetup(controller)
                 .build();
 
-        user = new User(1L, "email@mail.com", "name");
-        item = new Item(1L, user, "name", "desc", true, null);
+        booker = new BookerDto(1L, "name");
+        item = new BookingItemDto(1L, "name");
         userDto = new UserDto(1L, "test", "test@test.com");
         requestDto = new BookingDtoRequest(1L, null, null);
-        responseDto = new BookingDto(1L, item, user, Status.WAITING, null, null);
+        responseDto = new BookingDto(1L, item, booker, Status.WAITING, null, null);
 
     }
 
@@ -80,11 +102,45 @@ public class BookingControllerTest {
                         .header("X-Sharer-User-Id", userDto.getId()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1))
-                .andExpect(jsonPath("$.item").value(item))
-                .andExpect(jsonPath("$.booker").value(user))
+                .andExpect(jsonPath("$.item.id").value(item.getId()))
+                .andExpect(jsonPath("$.item.name").value(item.getName()))
+                .andExpect(jsonPath("$.booker.id").value(booker.getId()))
                 .andExpect(jsonPath("$.status").value("WAITING"));
     }
 
+    @Test
+    void testShouldImportBookings() throws Exception {
+        when(bookingImportService.importBookings(any()))
+                .thenReturn(new BookingImportResultDto(2, 1, 1, List.of()));
+
+        mvc.perform(post("/bookings/import")
+                        .content("{}\n{}")
+                        .contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.failed").value(1));
+    }
+
+    @Test
+    void testShouldExportBookingsByUserItems() throws Exception {
+        doAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(bookingService).exportBookingsByItemsOwner(anyLong(), eq(ExportFormat.NDJSON), any());
+
+        MvcResult result = mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", userDto.getId()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Assertions.assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(600_000);
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
     @Test
     void testShouldApproveBooking() throws Exception {
         when(bookingService.approveBooking(anyLong(), anyBoolean(), anyLong()))
@@ -96,8 +152,9 @@ public class BookingControllerTest {
                         .header("X-Sharer-User-Id", userDto.getId()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1))
-                .andExpect(jsonPath("$.item").value(item))
-                .andExpect(jsonPath("$.booker").value(user))
+                .andExpect(jsonPath("$.item.id").value(item.getId()))
+                .andExpect(jsonPath("$.item.name").value(item.getName()))
+                .andExpect(jsonPath("$.booker.id").value(booker.getId()))
                 .andExpect(jsonPath("$.status").value("WAITING"));
     }
 
@@ -111,20 +168,22 @@ public class BookingControllerTest {
                         .header("X-Sharer-User-Id", userDto.getId()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1))
-                .andExpect(jsonPath("$.item").value(item))
-                .andExpect(jsonPath("$.booker").value(user))
+                .andExpect(jsonPath("$.item.id").value(item.getId()))
+                .andExpect(jsonPath("$.item.name").value(item.getName()))
+                .andExpect(jsonPath("$.booker.id").value(booker.getId()))
                 .andExpect(jsonPath("$.status").value("WAITING"));
     }
 
     @Test
     void testShouldGetBookingsByUserId() throws Exception {
-        when(bookingService.getBookingsByUserId(anyLong(), any()))
-                .thenReturn(List.of(responseDto));
+        when(bookingService.getBookingsByUserId(anyLong(), any(), any(), anyInt()))
+                .thenReturn(new PageDto<>(List.of(responseDto), "next"));
 
         mvc.perform(get("/bookings?state=")
                         .contentType(MediaType.APPLICATION_JSON)
                         .header("X-Sharer-User-Id", userDto.getId()))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
                 .andExpect((result -> {
                     String json = result.getResponse().getContentAsString();
                     List<BookingDto> dtos = mapper.readValue(json, new TypeReference<>() {
@@ -137,13 +196,14 @@ public class BookingControllerTest {
 
     @Test
     void testShouldGetBookingsByItemsOwner() throws Exception {
-        when(bookingService.getBookingsByItemsOwner(anyLong(), any()))
-                .thenReturn(List.of(responseDto));
+        when(bookingService.getBookingsByItemsOwner(anyLong(), any(), any(), anyInt()))
+                .thenReturn(new PageDto<>(List.of(responseDto), null));
 
         mvc.perform(get("/bookings/owner?state=")
                         .contentType(MediaType.APPLICATION_JSON)
                         .header("X-Sharer-User-Id", userDto.getId()))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect((result -> {
                     String json = result.getResponse().getContentAsString();
                     List<BookingDto> dtos = mapper.readValue(json, new TypeReference<>() {
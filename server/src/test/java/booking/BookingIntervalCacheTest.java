@@ -0,0 +1,110 @@
+package booking;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.enums.Status;
+import ru.practicum.shareit.booking.storage.BookingIntervalCache;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class BookingIntervalCacheTest {
+
+    static final LocalDateTime START = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    @Mock
+    BookingRepository bookingRepository;
+
+    private BookingIntervalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new BookingIntervalCache(bookingRepository, Duration.ofMillis(200));
+    }
+
+    @Test
+    void testShouldReloadItemWhenTtlPassesDespiteChanges() throws InterruptedException {
+        when(bookingRepository.findAllByItemIdAndStatusIn(anyLong(), anyCollection())).thenReturn(List.of());
+
+        cache.getIntervals(1L);
+        cache.onBookingChanged(new BookingChangedEvent(10L, 1L, START, START.plusHours(1), Status.WAITING));
+        Thread.sleep(300);
+        cache.getIntervals(1L);
+
+        verify(bookingRepository, times(2)).findAllByItemIdAndStatusIn(anyLong(), anyCollection());
+    }
+
+    @Test
+    void testShouldNotQueryOverlapsWhenCacheHasNone() {
+        when(bookingRepository.findAllByItemIdAndStatusIn(anyLong(), anyCollection())).thenReturn(List.of());
+
+        Assertions.assertThat(cache.hasOverlap(1L, START, START.plusHours(1))).isFalse();
+
+        verify(bookingRepository, never()).existsByItemIdAndStatusInAndStartBeforeAndEndAfter(anyLong(),
+                anyCollection(), any(), any());
+    }
+
+    @Test
+    void testShouldConfirmCachedOverlapWithDatabase() {
+        when(bookingRepository.findAllByItemIdAndStatusIn(anyLong(), anyCollection()))
+                .thenReturn(List.of(booking(10L, START, START.plusHours(2))));
+        when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(anyLong(), anyCollection(),
+                any(), any())).thenReturn(true);
+
+        Assertions.assertThat(cache.hasOverlap(1L, START.plusHours(1), START.plusHours(3))).isTrue();
+        Assertions.assertThat(cache.hasOverlap(1L, START.plusHours(1), START.plusHours(3))).isTrue();
+
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatusIn(anyLong(), anyCollection());
+    }
+
+    @Test
+    void testShouldDropItemWhenCachedOverlapIsGone() {
+        when(bookingRepository.findAllByItemIdAndStatusIn(anyLong(), anyCollection()))
+                .thenReturn(List.of(booking(10L, START, START.plusHours(2))), List.of());
+        when(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(anyLong(), anyCollection(),
+                any(), any())).thenReturn(false);
+
+        Assertions.assertThat(cache.hasOverlap(1L, START.plusHours(1), START.plusHours(3))).isFalse();
+        Assertions.assertThat(cache.getIntervals(1L).size()).isZero();
+
+        verify(bookingRepository, times(2)).findAllByItemIdAndStatusIn(anyLong(), anyCollection());
+    }
+
+    @Test
+    void testShouldApplyCommittedBookingMissedByConcurrentLoad() {
+        when(bookingRepository.findAllByItemIdAndStatusIn(anyLong(), anyCollection())).thenReturn(List.of());
+        BookingChangedEvent event = new BookingChangedEvent(10L, 1L, START, START.plusHours(1), Status.WAITING);
+
+        cache.onBookingChanged(event);
+        cache.getIntervals(1L);
+        cache.onBookingCommitted(event);
+
+        Assertions.assertThat(cache.getIntervals(1L).overlaps(START, START.plusHours(1))).isTrue();
+    }
+
+    private static Booking booking(Long id, LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(Status.APPROVED);
+        return booking;
+    }
+}
@@ -1,29 +1,48 @@
 package booking;
 
+import jakarta.persistence.EntityManager;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 import ru.practicum.shareit.ShareItServer;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingImportErrorDto;
+import ru.practicum.shareit.booking.dto.BookingImportResultDto;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.enums.ExportFormat;
 import ru.practicum.shareit.booking.model.enums.State;
 import ru.practicum.shareit.booking.model.enums.Status;
+import ru.practicum.shareit.booking.service.BookingImportService;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.storage.BookingIntervalCache;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.dto.PageDto;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @SpringBootTest(classes = ShareItServer.class)
@@ -41,6 +60,15 @@ public class DbBookingServiceImplTest {
     @Autowired
     BookingService bookingService;
 
+    @Autowired
+    BookingImportService bookingImportService;
+
+    @Autowired
+    BookingIntervalCache bookingIntervalCache;
+
+    @Autowired
+    EntityManager entityManager;
+
     static UserDto userDtoRequest1;
     static UserDto userDtoRequest2;
 
@@ -108,6 +136,49 @@ public class DbBookingServiceImplTest {
                 .isInstanceOf(IllegalStateException.class);
     }
 
+    @Test
+    void testShouldCreateBookingOverPeriodCancelledElsewhere() {
+        UserDto userDtoResponse1 = userService.createUser(userDtoRequest1);
+        UserDto userDtoResponse2 = userService.createUser(userDtoRequest2);
+        ItemDto itemDtoResponse = itemService.createItem(itemDtoRequest1, userDtoResponse1.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        bookingIntervalCache.getIntervals(itemDtoResponse.getId());
+        bookingIntervalCache.onBookingChanged(new BookingChangedEvent(Long.MAX_VALUE, itemDtoResponse.getId(),
+                start, start.plusHours(2), Status.APPROVED));
+
+        BookingDto booking = bookingService.createBooking(new BookingDtoRequest(itemDtoResponse.getId(),
+                start.plusHours(1), start.plusHours(3)), userDtoResponse2.getId());
+
+        Assertions.assertThat(booking.getId()).isNotNull();
+        Assertions.assertThatThrownBy(() -> bookingService.createBooking(new BookingDtoRequest(
+                        itemDtoResponse.getId(), start, start.plusHours(2)), userDtoResponse2.getId()))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void testShouldNotCreateOverlappingBooking() {
+        UserDto userDtoResponse1 = userService.createUser(userDtoRequest1);
+        UserDto userDtoResponse2 = userService.createUser(userDtoRequest2);
+        ItemDto itemDtoResponse = itemService.createItem(itemDtoRequest1, userDtoResponse1.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        BookingDto booking = bookingService.createBooking(new BookingDtoRequest(itemDtoResponse.getId(),
+                start, start.plusHours(2)), userDtoResponse2.getId());
+
+        Assertions.assertThatThrownBy(() -> bookingService.createBooking(new BookingDtoRequest(
+                        itemDtoResponse.getId(), start.plusHours(1), start.plusHours(3)), userDtoResponse2.getId()))
+                .isInstanceOf(ConflictException.class);
+        Assertions.assertThat(bookingService.createBooking(new BookingDtoRequest(itemDtoResponse.getId(),
+                start.plusHours(2), start.plusHours(3)), userDtoResponse2.getId()).getId()).isNotNull();
+
+        bookingService.approveBooking(booking.getId(), false, userDtoResponse1.getId());
+
+        Assertions.assertThat(bookingService.createBooking(new BookingDtoRequest(itemDtoResponse.getId(),
+                start.plusHours(1), start.plusHours(2)), userDtoResponse2.getId()).getId()).isNotNull();
+        Assertions.assertThatThrownBy(() -> bookingService.createBooking(new BookingDtoRequest(
+                        itemDtoResponse.getId(), start.plusHours(2), start.plusHours(1)), userDtoResponse2.getId()))
+                .isInstanceOf(ValidationException.class);
+    }
+
     @Test
     void testShouldApproveBooking() {
         UserDto userDtoResponse1 = userService.createUser(userDtoRequest1);
@@ -123,6 +194,39 @@ public class DbBookingServiceImplTest {
         Assertions.assertThat(bookingApproveDto.getStatus()).isEqualTo(Status.APPROVED);
     }
 
+    @Test
+    void testShouldApproveAndGetBookingWithBoundedStatements() {
+        UserDto userDtoResponse1 = userService.createUser(userDtoRequest1);
+        UserDto userDtoResponse2 = userService.createUser(userDtoRequest2);
+        ItemDto itemDtoResponse = itemService.createItem(itemDtoRequest1, userDtoResponse1.getId());
+        BookingDto bookingDtoResponse = bookingService.createBooking(new BookingDtoRequest(itemDtoResponse.getId(),
+                LocalDateTime.now().plusHours(1), LocalDateTime.now().plusHours(2)), userDtoResponse2.getId());
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        try {
+            entityManager.flush();
+            entityManager.clear();
+            statistics.clear();
+            BookingDto approved = bookingService.approveBooking(bookingDtoResponse.getId(), true,
+                    userDtoResponse1.getId());
+            entityManager.flush();
+
+            Assertions.assertThat(approved.getBooker().getName()).isEqualTo(userDtoResponse2.getName());
+            Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+            // a real request starts with empty request attributes; the harness binds one for the whole test
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+            entityManager.clear();
+            statistics.clear();
+            BookingDto found = bookingService.getBookingById(bookingDtoResponse.getId(), userDtoResponse2.getId());
+
+            Assertions.assertThat(found.getItem().getName()).isEqualTo(itemDtoResponse.getName());
+            Assertions.assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
     @Test
     void testShouldRejectBooking() {
         UserDto userDtoResponse1 = userService.createUser(userDtoRequest1);
@@ -214,7 +318,8 @@ public class DbBookingServiceImplTest {
         bookingService.createBooking(bookingDtoRequest2, userDtoResponse2.getId());
         bookingService.createBooking(bookingDtoRequest3, userDtoResponse2.getId());
 
-        List<BookingDto> bookings = bookingService.getBookingsByUserId(userDtoResponse2.getId(), State.CURRENT);
+        List<BookingDto> bookings = bookingService.getBookingsByUserId(userDtoResponse2.getId(), State.CURRENT,
+                null, 10).getItems();
 
         Assertions.assertThat(bookings.size()).isEqualTo(2);
     }
@@ -236,7 +341,8 @@ public class DbBookingServiceImplTest {
         bookingService.createBooking(bookingDtoRequest2, userDtoResponse2.getId());
         bookingService.createBooking(bookingDtoRequest3, userDtoResponse2.getId());
 
-        List<BookingDto> bookings = bookingService.getBookingsByUserId(userDtoResponse2.getId(), State.PAST);
+        List<BookingDto> bookings = bookingService.getBookingsByUserId(userDtoResponse2.getId(), State.PAST,
+                null, 10).getItems();
 
         Assertions.assertThat(bookings.size()).isEqualTo(2);
     }
@@ -248,9 +354,9 @@ public class DbBookingServiceImplTest {
         ItemDto itemDtoResponse = itemService.createItem(itemDtoRequest1, userDtoResponse1.getId());
 
         BookingDtoRequest bookingDtoRequest1 = new BookingDtoRequest(itemDtoResponse.getId(),
-                LocalDateTime.now().plusHours(2), LocalDateTime.now().plusMinutes(115));
+                LocalDateTime.now().plusHours(2), LocalDateTime.now().plusMinutes(125));
         BookingDtoRequest bookingDtoRequest2 = new BookingDtoRequest(itemDtoResponse.getId(),
-                LocalDateTime.now().plusHours(1), LocalDateTime.now().plusMinutes(65));
+                LocalDateTime.now().plusHours(1), LocalDateTime.now().plusMinutes(75));
         BookingDtoRequest bookingDtoRequest3 = new BookingDtoRequest(itemDtoResponse.getId(),
                 LocalDateTime.now().minusHours(10), LocalDateTime.now().minusHours(9));
 
@@ -258,7 +364,8 @@ public class DbBookingServiceImplTest {
         bookingService.createBooking(bookingDtoRequest2, userDtoResponse2.getId());
         bookingService.createBooking(bookingDtoRequest3, userDtoResponse2.getId());
 
-        List<BookingDto> bookings = bookingService.getBookingsByUserId(userDtoResponse2.getId(), State.FUTURE);
+        List<BookingDto> bookings = bookingService.getBookingsByUserId(userDtoResponse2.getId(), State.FUTURE,
+                null, 10).getItems();
 
         Assertions.assertThat(bookings.size()).isEqualTo(2);
     }
@@ -270,17 +377,18 @@ public class DbBookingServiceImplTest {
         ItemDto itemDtoResponse = itemService.createItem(itemDtoRequest1, userDtoResponse1.getId());
 
         BookingDtoRequest bookingDtoRequest1 = new BookingDtoRequest(itemDtoResponse.getId(),
-                LocalDateTime.now().plusHours(2), LocalDateTime.now().plusMinutes(115));
+                LocalDateTime.now().plusHours(2), LocalDateTime.now().plusMinutes(125));
         BookingDtoRequest bookingDtoRequest2 = new BookingDtoRequest(itemDtoResponse.getId(),
-                LocalDateTime.now().plusHours(1), LocalDateTime.now().plusMinutes(65));
+                LocalDateTime.now().plusHours(1), LocalDateTime.now().plusMinutes(75));
         BookingDtoRequest bookingDtoRequest3 = new BookingDtoRequest(itemDtoResponse.getId(),
-                LocalDateTime.now().plusHours(3), LocalDateTime.now().plusMinutes(185));
+                LocalDateTime.now().plusHours(3), LocalDateTime.now().plusMinutes(195));
 
         bookingService.createBooking(bookingDtoRequest1, userDtoResponse2.getId());
         bookingService.createBooking(bookingDtoRequest2, userDtoResponse2.getId());
         bookingService.createBooking(bookingDtoRequest3, userDtoResponse2.getId());
 
-        List<BookingDto> bookings = bookingService.getBookingsByUserId(userDtoResponse2.getId(), State.ALL);
+        List<BookingDto> bookings = bookingService.getBookingsByUserId(userDtoResponse2.getId(), State.ALL,
+                null, 10).getItems();
 
         Assertions.assertThat(bookings.size()).isEqualTo(3);
     }
@@ -288,7 +396,7 @@ public class DbBookingServiceImplTest {
     @Test
     void testShouldNotGetNoUser() {
         Assertions.assertThatThrownBy(() ->
-                bookingService.getBookingsByUserId(1L, State.ALL)).isInstanceOf(NotFoundException.class);
+                bookingService.getBookingsByUserId(1L, State.ALL, null, 10)).isInstanceOf(NotFoundException.class);
     }
 
     @Test
@@ -300,18 +408,155 @@ public class DbBookingServiceImplTest {
         ItemDto itemDtoResponse3 = itemService.createItem(itemDtoRequest1, userDtoResponse1.getId());
 
         BookingDtoRequest bookingDtoRequest1 = new BookingDtoRequest(itemDtoResponse1.getId(),
-                LocalDateTime.now().plusHours(2), LocalDateTime.now().plusMinutes(115));
+                LocalDateTime.now().plusHours(2), LocalDateTime.now().plusMinutes(125));
         BookingDtoRequest bookingDtoRequest2 = new BookingDtoRequest(itemDtoResponse2.getId(),
-                LocalDateTime.now().plusHours(1), LocalDateTime.now().plusMinutes(65));
+                LocalDateTime.now().plusHours(1), LocalDateTime.now().plusMinutes(75));
         BookingDtoRequest bookingDtoRequest3 = new BookingDtoRequest(itemDtoResponse3.getId(),
-                LocalDateTime.now().plusHours(3), LocalDateTime.now().plusMinutes(185));
+                LocalDateTime.now().plusHours(3), LocalDateTime.now().plusMinutes(195));
 
         bookingService.createBooking(bookingDtoRequest1, userDtoResponse2.getId());
         bookingService.createBooking(bookingDtoRequest2, userDtoResponse2.getId());
         bookingService.createBooking(bookingDtoRequest3, userDtoResponse2.getId());
 
-        List<BookingDto> bookings = bookingService.getBookingsByItemsOwner(userDtoResponse1.getId(), State.ALL);
+        List<BookingDto> bookings = bookingService.getBookingsByItemsOwner(userDtoResponse1.getId(), State.ALL,
+                null, 10).getItems();
 
         Assertions.assertThat(bookings.size()).isEqualTo(3);
     }
+
+    @Test
+    void testShouldGetBookingsPageByPage() {
+        UserDto userDtoResponse1 = userService.createUser(userDtoRequest1);
+        UserDto userDtoResponse2 = userService.createUser(userDtoRequest2);
+        ItemDto itemDtoResponse = itemService.createItem(itemDtoRequest1, userDtoResponse1.getId());
+        ItemDto otherItemDtoResponse = itemService.createItem(itemDtoRequest2, userDtoResponse1.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        BookingDto bookingDto1 = bookingService.createBooking(new BookingDtoRequest(itemDtoResponse.getId(),
+                start, start.plusHours(1)), userDtoResponse2.getId());
+        BookingDto bookingDto2 = bookingService.createBooking(new BookingDtoRequest(otherItemDtoResponse.getId(),
+                start, start.plusHours(2)), userDtoResponse2.getId());
+        BookingDto bookingDto3 = bookingService.createBooking(new BookingDtoRequest(itemDtoResponse.getId(),
+                start.plusDays(1), start.plusDays(2)), userDtoResponse2.getId());
+
+        PageDto<BookingDto> firstPage = bookingService.getBookingsByUserId(userDtoResponse2.getId(), State.ALL,
+                null, 2);
+        PageDto<BookingDto> secondPage = bookingService.getBookingsByUserId(userDtoResponse2.getId(), State.ALL,
+                firstPage.getNextCursor(), 2);
+
+        Assertions.assertThat(firstPage.getItems()).extracting(BookingDto::getId)
+                .containsExactly(bookingDto3.getId(), bookingDto2.getId());
+        Assertions.assertThat(firstPage.getNextCursor()).isNotNull();
+        Assertions.assertThat(secondPage.getItems()).extracting(BookingDto::getId)
+                .containsExactly(bookingDto1.getId());
+        Assertions.assertThat(secondPage.getNextCursor()).isNull();
+    }
+
+    @Test
+    void testShouldGetOwnerBookingsPageByPage() {
+        UserDto userDtoResponse1 = userService.createUser(userDtoRequest1);
+        UserDto userDtoResponse2 = userService.createUser(userDtoRequest2);
+        ItemDto itemDtoResponse1 = itemService.createItem(itemDtoRequest1, userDtoResponse1.getId());
+        ItemDto itemDtoResponse2 = itemService.createItem(itemDtoRequest2, userDtoResponse1.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        bookingService.createBooking(new BookingDtoRequest(itemDtoResponse1.getId(),
+                start, start.plusHours(1)), userDtoResponse2.getId());
+        bookingService.createBooking(new BookingDtoRequest(itemDtoResponse2.getId(),
+                start.plusDays(1), start.plusDays(2)), userDtoResponse2.getId());
+
+        PageDto<BookingDto> firstPage = bookingService.getBookingsByItemsOwner(userDtoResponse1.getId(),
+                State.FUTURE, null, 1);
+        PageDto<BookingDto> secondPage = bookingService.getBookingsByItemsOwner(userDtoResponse1.getId(),
+                State.FUTURE, firstPage.getNextCursor(), 1);
+
+        Assertions.assertThat(firstPage.getItems().getFirst().getItem().getId()).isEqualTo(itemDtoResponse2.getId());
+        Assertions.assertThat(secondPage.getItems().getFirst().getItem().getId()).isEqualTo(itemDtoResponse1.getId());
+        Assertions.assertThat(secondPage.getItems().getFirst().getItem().getName())
+                .isEqualTo(itemDtoResponse1.getName());
+        Assertions.assertThat(secondPage.getItems().getFirst().getBooker().getName())
+                .isEqualTo(userDtoResponse2.getName());
+    }
+
+    @Test
+    void testShouldImportBookingsFromNdjson() {
+        UserDto userDtoResponse1 = userService.createUser(userDtoRequest1);
+        UserDto userDtoResponse2 = userService.createUser(userDtoRequest2);
+        ItemDto itemDtoResponse = itemService.createItem(itemDtoRequest1, userDtoResponse1.getId());
+        String line = "{\"itemId\":%d,\"bookerId\":%d,\"start\":\"%s\",\"end\":\"%s\",\"status\":\"APPROVED\"}";
+        LocalDateTime start = LocalDateTime.now().minusDays(10).truncatedTo(ChronoUnit.SECONDS);
+        String ndjson = String.join("\n",
+                line.formatted(itemDtoResponse.getId(), userDtoResponse2.getId(), start, start.plusDays(1)),
+                line.formatted(itemDtoResponse.getId(), userDtoResponse2.getId(), start.plusDays(2), start.plusDays(3)),
+                "{not json",
+                "",
+                line.formatted(itemDtoResponse.getId() + 100, userDtoResponse2.getId(), start, start.plusDays(1)),
+                line.formatted(itemDtoResponse.getId(), userDtoResponse2.getId(), start.plusDays(1), start));
+
+        BookingImportResultDto result = bookingImportService.importBookings(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)));
+
+        Assertions.assertThat(result.getTotal()).isEqualTo(5);
+        Assertions.assertThat(result.getImported()).isEqualTo(2);
+        Assertions.assertThat(result.getFailed()).isEqualTo(3);
+        Assertions.assertThat(result.getErrors()).extracting(BookingImportErrorDto::getLine)
+                .containsExactly(3L, 5L, 6L);
+        Assertions.assertThat(bookingService.getBookingsByUserId(userDtoResponse2.getId(), State.PAST, null, 10)
+                .getItems())
+                .hasSize(2)
+                .allMatch(booking -> booking.getStatus() == Status.APPROVED);
+    }
+
+    @Test
+    void testShouldExportOwnerBookings() throws IOException {
+        UserDto userDtoResponse1 = userService.createUser(userDtoRequest1);
+        UserDto userDtoResponse2 = userService.createUser(userDtoRequest2);
+        ItemDto itemDtoResponse = itemService.createItem(new ItemDtoRequest("drill, large", "description", true,
+                null), userDtoResponse1.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        BookingDto bookingDto1 = bookingService.createBooking(new BookingDtoRequest(itemDtoResponse.getId(),
+                start, start.plusHours(1)), userDtoResponse2.getId());
+        BookingDto bookingDto2 = bookingService.createBooking(new BookingDtoRequest(itemDtoResponse.getId(),
+                start.plusDays(1), start.plusDays(2)), userDtoResponse2.getId());
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+
+        bookingService.exportBookingsByItemsOwner(userDtoResponse1.getId(), ExportFormat.NDJSON, ndjson);
+        bookingService.exportBookingsByItemsOwner(userDtoResponse1.getId(), ExportFormat.CSV, csv);
+
+        List<String> jsonLines = ndjson.toString(StandardCharsets.UTF_8).lines().toList();
+        Assertions.assertThat(jsonLines).hasSize(2);
+        Assertions.assertThat(jsonLines.getFirst()).contains("\"id\":" + bookingDto2.getId());
+        List<String> csvLines = csv.toString(StandardCharsets.UTF_8).lines().toList();
+        Assertions.assertThat(csvLines).hasSize(3);
+        Assertions.assertThat(csvLines.getFirst()).startsWith("id,start,end,status");
+        Assertions.assertThat(csvLines.get(2)).startsWith(bookingDto1.getId() + ",")
+                .contains(",\"drill, large\",");
+    }
+
+    @Test
+    void testShouldNeutralizeFormulasInCsvExport() throws IOException {
+        UserDto owner = userService.createUser(userDtoRequest1);
+        UserDto booker = userService.createUser(new UserDto(null, "@SUM(A1:A2)", "formula@test.com"));
+        ItemDto item = itemService.createItem(new ItemDtoRequest("=HYPERLINK(\"http://x\",\"a\")", "description",
+                true, null), owner.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        bookingService.createBooking(new BookingDtoRequest(item.getId(), start, start.plusHours(1)), booker.getId());
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+
+        bookingService.exportBookingsByItemsOwner(owner.getId(), ExportFormat.CSV, csv);
+
+        Assertions.assertThat(csv.toString(StandardCharsets.UTF_8).lines().toList().get(1))
+                .contains(",\"'=HYPERLINK(\"\"http://x\"\",\"\"a\"\")\",")
+                .endsWith(",'@SUM(A1:A2)");
+    }
+
+    @Test
+    void testShouldNotGetBookingsInvalidCursor() {
+        UserDto userDtoResponse = userService.createUser(userDtoRequest1);
+
+        Assertions.assertThatThrownBy(() ->
+                        bookingService.getBookingsByUserId(userDtoResponse.getId(), State.ALL, "invalid", 10))
+                .isInstanceOf(ValidationException.class);
+    }
 }
@@ -0,0 +1,108 @@
+package config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.enums.Status;
+import ru.practicum.shareit.booking.storage.BookingIntervalCache;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.config.CacheEvictionListener;
+import ru.practicum.shareit.config.ReplicaDataSourceProperties;
+import ru.practicum.shareit.user.event.UserUpdatedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class CacheEvictionListenerTest {
+
+    static final Duration WINDOW = Duration.ofMillis(200);
+
+    CacheManager cacheManager;
+    EntityManagerFactory entityManagerFactory;
+    org.hibernate.Cache secondLevelCache;
+    BookingIntervalCache bookingIntervalCache;
+    CacheEvictionListener listener;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager(CacheConfig.USERS_CACHE, CacheConfig.ITEMS_CACHE);
+        secondLevelCache = Mockito.mock(org.hibernate.Cache.class);
+        SessionFactory sessionFactory = Mockito.mock(SessionFactory.class);
+        Mockito.when(sessionFactory.getCache()).thenReturn(secondLevelCache);
+        entityManagerFactory = Mockito.mock(EntityManagerFactory.class);
+        Mockito.when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        bookingIntervalCache = Mockito.mock(BookingIntervalCache.class);
+        listener = new CacheEvictionListener(cacheManager, entityManagerFactory, bookingIntervalCache,
+                replicaProperties(WINDOW));
+    }
+
+    @AfterEach
+    void tearDown() {
+        listener.destroy();
+    }
+
+    @Test
+    void testShouldEvictAgainAfterReadYourWritesWindow() {
+        cacheManager.getCache(CacheConfig.USERS_CACHE).put(1L, "old");
+
+        listener.onUserUpdated(new UserUpdatedEvent(1L));
+
+        Assertions.assertThat(cacheManager.getCache(CacheConfig.USERS_CACHE).get(1L)).isNull();
+        // A read-only load from a lagging replica caches the old state again.
+        cacheManager.getCache(CacheConfig.USERS_CACHE).put(1L, "old");
+
+        Mockito.verify(secondLevelCache, Mockito.timeout(WINDOW.toMillis() * 10).times(2))
+                .evictEntityData(User.class, 1L);
+        Assertions.assertThat(cacheManager.getCache(CacheConfig.USERS_CACHE).get(1L)).isNull();
+    }
+
+    @Test
+    void testShouldDropBookingIntervalsLoadedDuringWindow() {
+        listener.onBookingChanged(new BookingChangedEvent(1L, 2L, LocalDateTime.now(),
+                LocalDateTime.now().plusDays(1), Status.APPROVED));
+
+        Mockito.verify(bookingIntervalCache, Mockito.never()).evict(2L);
+        Mockito.verify(bookingIntervalCache, Mockito.timeout(WINDOW.toMillis() * 10)).evict(2L);
+    }
+
+    @Test
+    void testShouldEvictOnlyOnceWithoutReplicas() throws InterruptedException {
+        listener.destroy();
+        listener = new CacheEvictionListener(cacheManager, entityManagerFactory, bookingIntervalCache,
+                replicaProperties(null));
+        cacheManager.getCache(CacheConfig.USERS_CACHE).put(1L, "old");
+
+        listener.onUserUpdated(new UserUpdatedEvent(1L));
+        listener.onBookingChanged(new BookingChangedEvent(1L, 2L, LocalDateTime.now(),
+                LocalDateTime.now().plusDays(1), Status.APPROVED));
+        cacheManager.getCache(CacheConfig.USERS_CACHE).put(1L, "old");
+        Thread.sleep(WINDOW.toMillis() * 2);
+
+        Assertions.assertThat(cacheManager.getCache(CacheConfig.USERS_CACHE).get(1L)).isNotNull();
+        Mockito.verify(secondLevelCache).evictEntityData(User.class, 1L);
+        Mockito.verifyNoInteractions(bookingIntervalCache);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<ReplicaDataSourceProperties> replicaProperties(Duration window) {
+        ObjectProvider<ReplicaDataSourceProperties> provider = Mockito.mock(ObjectProvider.class);
+        if (window != null) {
+            ReplicaDataSourceProperties properties = new ReplicaDataSourceProperties();
+            properties.setReadYourWritesWindow(window);
+            Mockito.when(provider.getIfAvailable()).thenReturn(properties);
+        }
+        return provider;
+    }
+}
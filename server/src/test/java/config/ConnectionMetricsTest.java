@@ -0,0 +1,41 @@
+package config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItServer;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = ShareItServer.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ConnectionMetricsTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void testShouldRecordConnectionLeasePerEndpoint() throws Exception {
+        mvc.perform(get("/users")).andExpect(status().isOk());
+
+        Assertions.assertThat(meterRegistry.get("shareit.jdbc.connection.lease")
+                .tag("endpoint", "UserController.getUsers").timer().count()).isPositive();
+        Assertions.assertThat(meterRegistry.get("shareit.jdbc.connection.wait")
+                .tag("endpoint", "UserController.getUsers").timer().count()).isPositive();
+        Assertions.assertThat(meterRegistry.get("hikaricp.connections.active").gauge()).isNotNull();
+        Assertions.assertThat(meterRegistry.get("hikaricp.connections.idle").gauge()).isNotNull();
+    }
+}
@@ -0,0 +1,82 @@
+package config;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.assertj.core.api.Assertions;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+// Not transactional: a test transaction would pin every call to one connection.
+// The replica is a separate H2 database that receives no replication, so a row's origin shows the route.
+@SpringBootTest(classes = ShareItServer.class, properties = {
+        "shareit.datasource.replicas[0].url=" + DataSourceRoutingTest.REPLICA_URL,
+        "shareit.datasource.replicas[0].username=shareit",
+        "shareit.datasource.replicas[0].password=shareit",
+        "shareit.datasource.health-check-interval=1h"
+})
+@ActiveProfiles("test")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class DataSourceRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:shareit-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    ItemService itemService;
+
+    JdbcTemplate replica;
+    UserDto owner;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(REPLICA_URL, "shareit", "shareit");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration/common").load().migrate();
+        replica = new JdbcTemplate(dataSource);
+        owner = userService.createUser(new UserDto(null, "primary", "routing@test.com"));
+        replica.update("insert into users (id, name, email) values (?, ?, ?)", owner.getId(), "replica",
+                "routing@test.com");
+    }
+
+    @AfterEach
+    void tearDown() {
+        replica.update("delete from users where id = ?", owner.getId());
+        userService.deleteUser(owner.getId());
+    }
+
+    @Test
+    void testShouldReadFromReplicaInReadOnlyTransactions() {
+        Assertions.assertThat(userService.getUserById(owner.getId()).getName()).isEqualTo("replica");
+    }
+
+    @Test
+    void testShouldReadOwnWritesFromPrimary() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Sharer-User-Id", owner.getId());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            itemService.createItem(new ItemDtoRequest("drill", "cordless drill", true, null), owner.getId());
+            Assertions.assertThat(itemService.getItemsByOwnerId(owner.getId())).hasSize(1);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        Assertions.assertThat(itemService.getItemsByOwnerId(owner.getId())).isEmpty();
+    }
+}
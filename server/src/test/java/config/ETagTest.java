@@ -0,0 +1,87 @@
+package config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = ShareItServer.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ETagTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @Autowired
+    ObjectMapper mapper;
+
+    @Test
+    void testShouldAnswerUnchangedUserAndItemWithNotModified() throws Exception {
+        UserDto user = mapper.readValue(mvc.perform(post("/users")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new UserDto(null, "etag", "etag@test.com"))))
+                .andReturn().getResponse().getContentAsString(), UserDto.class);
+        ItemDto item = mapper.readValue(mvc.perform(post("/items")
+                        .header("X-Sharer-User-Id", user.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(new ItemDtoRequest("drill", "drill", true, null))))
+                .andReturn().getResponse().getContentAsString(), ItemDto.class);
+        try {
+            String userETag = eTag("/users/" + user.getId());
+            String itemETag = eTag("/items/" + item.getId());
+
+            mvc.perform(get("/users/" + user.getId()).header(HttpHeaders.IF_NONE_MATCH, userETag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+            mvc.perform(get("/items/" + item.getId()).header(HttpHeaders.IF_NONE_MATCH, itemETag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            mvc.perform(patch("/items/" + item.getId())
+                            .header("X-Sharer-User-Id", user.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(new ItemDtoRequest("hammer", null, null, null))))
+                    .andExpect(status().isOk());
+            mvc.perform(patch("/users/" + user.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(new UserDto(null, "renamed", null))))
+                    .andExpect(status().isOk());
+
+            mvc.perform(get("/users/" + user.getId()).header(HttpHeaders.IF_NONE_MATCH, userETag))
+                    .andExpect(status().isOk());
+            mvc.perform(get("/items/" + item.getId()).header(HttpHeaders.IF_NONE_MATCH, itemETag))
+                    .andExpect(status().isOk());
+        } finally {
+            mvc.perform(delete("/users/" + user.getId()));
+        }
+    }
+
+    private String eTag(String path) throws Exception {
+        String eTag = mvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Assertions.assertThat(eTag).isNotBlank();
+        return eTag;
+    }
+}
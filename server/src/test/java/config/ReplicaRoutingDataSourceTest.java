@@ -0,0 +1,137 @@
+package config;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.config.ReadYourWritesTracker;
+import ru.practicum.shareit.config.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ReplicaRoutingDataSourceTest {
+
+    FlakyDataSource replica;
+    ReplicaRoutingDataSource routing;
+    JdbcTemplate jdbcTemplate;
+    DataSourceTransactionManager transactionManager;
+    MockHttpServletRequest request;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("routing-primary", "primary");
+        replica = new FlakyDataSource(database("routing-replica", "replica"));
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica),
+                new ReadYourWritesTracker(Duration.ofMinutes(1)), Duration.ofHours(1));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+        request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testShouldSendReadOnlyTransactionsToReplica() {
+        Assertions.assertThat(read(true)).isEqualTo("replica");
+        Assertions.assertThat(read(false)).isEqualTo("primary");
+        Assertions.assertThat(jdbcTemplate.queryForObject("select name from marker", String.class))
+                .isEqualTo("primary");
+    }
+
+    @Test
+    void testShouldReadOwnWritesFromPrimary() {
+        request.addHeader("X-Sharer-User-Id", "1");
+        transactionTemplate(false).executeWithoutResult(status ->
+                jdbcTemplate.update("update marker set name = name"));
+
+        Assertions.assertThat(read(true)).isEqualTo("primary");
+
+        request.removeHeader("X-Sharer-User-Id");
+        request.addHeader("X-Sharer-User-Id", "2");
+        Assertions.assertThat(read(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void testShouldNotTrackRolledBackWrites() {
+        request.addHeader("X-Sharer-User-Id", "1");
+        transactionTemplate(false).executeWithoutResult(status -> {
+            jdbcTemplate.update("update marker set name = name");
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertThat(read(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void testShouldFallBackToPrimaryUntilReplicaRecovers() {
+        replica.down = true;
+
+        Assertions.assertThat(read(true)).isEqualTo("primary");
+        Assertions.assertThat(routing.isHealthy(0)).isFalse();
+
+        replica.down = false;
+        Assertions.assertThat(read(true)).isEqualTo("primary");
+
+        routing.checkReplicas();
+        Assertions.assertThat(routing.isHealthy(0)).isTrue();
+        Assertions.assertThat(read(true)).isEqualTo("replica");
+    }
+
+    private String read(boolean readOnly) {
+        return transactionTemplate(readOnly).execute(status ->
+                jdbcTemplate.queryForObject("select name from marker", String.class));
+    }
+
+    private TransactionTemplate transactionTemplate(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    private static DataSource database(String name, String marker) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+                "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists marker (name varchar(20))");
+        jdbcTemplate.update("delete from marker");
+        jdbcTemplate.update("insert into marker values (?)", marker);
+        return dataSource;
+    }
+
+    private static class FlakyDataSource extends DelegatingDataSource {
+        volatile boolean down;
+
+        FlakyDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("replica is down");
+            }
+            return super.getConnection();
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package item;
 
+import jakarta.persistence.EntityManager;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import org.assertj.core.api.Assertions;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,13 +15,20 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.ShareItServer;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.enums.Status;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -26,6 +36,9 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
 
 @SpringBootTest(classes = ShareItServer.class)
@@ -46,6 +59,15 @@ public class DbItemServiceImplTest {
     @Autowired
     ItemRequestService itemRequestService;
 
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    BookingRepository bookingRepository;
+
     static UserDto userDtoRequest1;
     static UserDto userDtoRequest2;
 
@@ -96,6 +118,52 @@ public class DbItemServiceImplTest {
         }).isInstanceOf(NotFoundException.class);
     }
 
+    @Test
+    void testShouldCreateItemsBatchWithPerItemResults() {
+        UserDto userDtoResponse = userService.createUser(userDtoRequest1);
+        List<ItemDtoRequest> batch = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            batch.add(new ItemDtoRequest("batch" + i, "batch description", true, null));
+        }
+        batch.set(10, new ItemDtoRequest(" ", "batch description", true, null));
+        batch.set(20, new ItemDtoRequest("batch", "batch description", null, null));
+
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        List<ItemBatchResultDto> results;
+        try {
+            entityManager.flush();
+            statistics.clear();
+            results = itemService.createItems(batch, userDtoResponse.getId());
+            entityManager.flush();
+
+            // 118 inserts go out in JDBC batches of 50: three insert statements, plus the owner lookup
+            // and up to three id sequence calls, depending on ids left in the pool
+            Assertions.assertThat(statistics.getEntityInsertCount()).isEqualTo(118);
+            Assertions.assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(7);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+
+        Assertions.assertThat(results).hasSize(120);
+        Assertions.assertThat(results).filteredOn(result -> result.getError() != null)
+                .extracting(ItemBatchResultDto::getIndex)
+                .containsExactly(10, 20);
+        Assertions.assertThat(results).filteredOn(result -> result.getError() == null)
+                .extracting(ItemBatchResultDto::getId)
+                .doesNotContainNull()
+                .doesNotHaveDuplicates();
+        Assertions.assertThat(itemService.getItemsByOwnerId(userDtoResponse.getId())).hasSize(118);
+    }
+
+    @Test
+    void testShouldNotCreateEmptyItemsBatch() {
+        UserDto userDtoResponse = userService.createUser(userDtoRequest1);
+
+        Assertions.assertThatThrownBy(() -> itemService.createItems(List.of(), userDtoResponse.getId()))
+                .isInstanceOf(ValidationException.class);
+    }
+
     @Test
     void testShouldUpdateItem() {
         UserDto userDtoResponse = userService.createUser(userDtoRequest1);
@@ -200,13 +268,92 @@ public class DbItemServiceImplTest {
         UserDto userDtoResponse = userService.createUser(userDtoRequest1);
         ItemDto itemDtoResponseCreate1 = itemService.createItem(itemDtoRequest1, userDtoResponse.getId());
         ItemDto itemDtoResponseCreate2 = itemService.createItem(itemDtoRequest2, userDtoResponse.getId());
-        List<ItemDto> itemDtoResponseName = itemService.getItemByText(itemDtoRequest1.getName());
-        List<ItemDto> itemDtoResponseDesc = itemService.getItemByText(itemDtoRequest2.getDescription());
+        List<ItemDto> itemDtoResponseName = itemService.getItemByText(itemDtoRequest1.getName(), 0, 10);
+        List<ItemDto> itemDtoResponseDesc = itemService.getItemByText(itemDtoRequest2.getDescription(), 0, 10);
 
         Assertions.assertThat(itemDtoResponseName.size()).isEqualTo(1);
         Assertions.assertThat(itemDtoResponseDesc.size()).isEqualTo(1);
     }
 
+    @Test
+    void testShouldSearchAvailableItemsRankedWithoutDuplicates() {
+        UserDto userDtoResponse = userService.createUser(userDtoRequest1);
+        ItemDto descriptionMatch = itemService.createItem(new ItemDtoRequest("Отвертка",
+                "Насадка на дрель", true, null), userDtoResponse.getId());
+        ItemDto nameAndDescriptionMatch = itemService.createItem(new ItemDtoRequest("Дрель",
+                "Аккумуляторная дрель", true, null), userDtoResponse.getId());
+        itemService.createItem(new ItemDtoRequest("Дрель ударная", "Сломана", false, null),
+                userDtoResponse.getId());
+
+        List<ItemDto> items = itemService.getItemByText("дРелЬ", 0, 10);
+
+        Assertions.assertThat(items).extracting(ItemDto::getId)
+                .containsExactly(nameAndDescriptionMatch.getId(), descriptionMatch.getId());
+    }
+
+    @Test
+    void testShouldSearchItemsPageByPage() {
+        UserDto userDtoResponse = userService.createUser(userDtoRequest1);
+        ItemDto itemDtoResponse1 = itemService.createItem(itemDtoRequest1, userDtoResponse.getId());
+        ItemDto itemDtoResponse2 = itemService.createItem(itemDtoRequest2, userDtoResponse.getId());
+
+        List<ItemDto> firstPage = itemService.getItemByText("description", 0, 1);
+        List<ItemDto> secondPage = itemService.getItemByText("description", 1, 1);
+
+        Assertions.assertThat(firstPage).extracting(ItemDto::getId).containsExactly(itemDtoResponse1.getId());
+        Assertions.assertThat(secondPage).extracting(ItemDto::getId).containsExactly(itemDtoResponse2.getId());
+    }
+
+    @Test
+    void testShouldSearchItemsFreeInRange() {
+        UserDto ownerDtoResponse = userService.createUser(userDtoRequest1);
+        UserDto bookerDtoResponse = userService.createUser(userDtoRequest2);
+        ItemDto busyItem = itemService.createItem(itemDtoRequest1, ownerDtoResponse.getId());
+        ItemDto freeItem = itemService.createItem(itemDtoRequest2, ownerDtoResponse.getId());
+        ItemDto rejectedItem = itemService.createItem(new ItemDtoRequest("test3", "description3", true, null),
+                ownerDtoResponse.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        bookingService.createBooking(new BookingDtoRequest(busyItem.getId(), start.plusHours(1),
+                start.plusHours(3)), bookerDtoResponse.getId());
+        bookingService.createBooking(new BookingDtoRequest(freeItem.getId(), start.plusHours(3),
+                start.plusHours(4)), bookerDtoResponse.getId());
+        BookingDto rejected = bookingService.createBooking(new BookingDtoRequest(rejectedItem.getId(),
+                start, start.plusHours(4)), bookerDtoResponse.getId());
+        bookingService.approveBooking(rejected.getId(), false, ownerDtoResponse.getId());
+
+        List<ItemDto> items = itemService.getFreeItemsByText("description", start, start.plusHours(3), 0, 10);
+
+        Assertions.assertThat(items).extracting(ItemDto::getId)
+                .containsExactly(freeItem.getId(), rejectedItem.getId());
+        Assertions.assertThat(itemService.getFreeItemsByText("description", start, start.plusHours(3), 1, 1))
+                .extracting(ItemDto::getId)
+                .containsExactly(rejectedItem.getId());
+        Assertions.assertThatThrownBy(() -> itemService.getFreeItemsByText("description", start, null, 0, 10))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void testShouldRebuildSearchIndexConsistentWithDatabase() {
+        UserDto userDtoResponse = userService.createUser(userDtoRequest1);
+        itemService.createItem(itemDtoRequest1, userDtoResponse.getId());
+        itemService.createItem(itemDtoRequest2, userDtoResponse.getId());
+        itemService.createItem(new ItemDtoRequest("description", "hidden", false, null), userDtoResponse.getId());
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository, true);
+
+        index.rebuild();
+
+        for (String text : List.of("description", "test2", "es", "ion1")) {
+            Assertions.assertThat(index.search(List.of(text), 0, 10))
+                    .isEqualTo(itemService.getItemByText(text, 0, 10));
+        }
+    }
+
+    @Test
+    void testShouldNotSearchItemsNegativeFrom() {
+        Assertions.assertThatThrownBy(() -> itemService.getItemByText("test", -1, 10))
+                .isInstanceOf(ValidationException.class);
+    }
+
     @Test
     void testShouldDeleteItem() {
         UserDto userDtoResponse = userService.createUser(userDtoRequest1);
@@ -222,6 +369,79 @@ public class DbItemServiceImplTest {
         }).isInstanceOf(NotFoundException.class);
     }
 
+    @Test
+    void testShouldFindOwnerItemsWithSingleLastAndNextBooking() {
+        UserDto ownerDtoResponse = userService.createUser(userDtoRequest1);
+        UserDto bookerDtoResponse = userService.createUser(userDtoRequest2);
+        ItemDto itemDtoResponse = itemService.createItem(itemDtoRequest1, ownerDtoResponse.getId());
+        itemService.createItem(itemDtoRequest2, ownerDtoResponse.getId());
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingDto> bookings = new ArrayList<>();
+        for (int hours : List.of(-5, -3, 2, 4)) {
+            BookingDto booking = bookingService.createBooking(new BookingDtoRequest(itemDtoResponse.getId(),
+                    now.plusHours(hours), now.plusHours(hours + 1)), bookerDtoResponse.getId());
+            bookingService.approveBooking(booking.getId(), true, ownerDtoResponse.getId());
+            bookings.add(booking);
+        }
+
+        List<ItemDto> items = itemService.getItemsByOwnerId(ownerDtoResponse.getId());
+
+        Assertions.assertThat(items).hasSize(2);
+        Assertions.assertThat(items.getFirst().getLastBooking().getId()).isEqualTo(bookings.get(1).getId());
+        Assertions.assertThat(items.getFirst().getNextBooking().getId()).isEqualTo(bookings.get(2).getId());
+        Assertions.assertThat(items.get(1).getLastBooking()).isNull();
+        Assertions.assertThat(items.get(1).getNextBooking()).isNull();
+    }
+
+    @Test
+    void testShouldGetMergedItemAvailability() {
+        UserDto ownerDtoResponse = userService.createUser(userDtoRequest1);
+        UserDto bookerDtoResponse = userService.createUser(userDtoRequest2);
+        ItemDto itemDtoResponse = itemService.createItem(itemDtoRequest1, ownerDtoResponse.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        BookingDto approved = bookingService.createBooking(new BookingDtoRequest(itemDtoResponse.getId(),
+                start.plusHours(1), start.plusHours(3)), bookerDtoResponse.getId());
+        bookingService.approveBooking(approved.getId(), true, ownerDtoResponse.getId());
+        bookingService.createBooking(new BookingDtoRequest(itemDtoResponse.getId(),
+                start.plusHours(3), start.plusHours(4)), bookerDtoResponse.getId());
+        BookingDto rejected = bookingService.createBooking(new BookingDtoRequest(itemDtoResponse.getId(),
+                start.plusHours(6), start.plusHours(8)), bookerDtoResponse.getId());
+        bookingService.approveBooking(rejected.getId(), false, ownerDtoResponse.getId());
+        bookingService.createBooking(new BookingDtoRequest(itemDtoResponse.getId(),
+                start.plusHours(10), start.plusHours(12)), bookerDtoResponse.getId());
+
+        ItemAvailabilityDto availability = itemService.getItemAvailability(itemDtoResponse.getId(),
+                start.plusHours(2), start.plusHours(11));
+
+        Assertions.assertThat(availability.getBusy()).containsExactly(
+                new AvailabilityIntervalDto(start.plusHours(2), start.plusHours(4)),
+                new AvailabilityIntervalDto(start.plusHours(10), start.plusHours(11)));
+        Assertions.assertThat(availability.getFree()).containsExactly(
+                new AvailabilityIntervalDto(start.plusHours(4), start.plusHours(10)));
+        Assertions.assertThatThrownBy(() -> itemService.getItemAvailability(itemDtoResponse.getId(),
+                start.plusHours(2), start.plusHours(2))).isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void testShouldReadItemAvailabilityFromDatabase() {
+        UserDto ownerDtoResponse = userService.createUser(userDtoRequest1);
+        UserDto bookerDtoResponse = userService.createUser(userDtoRequest2);
+        ItemDto itemDtoResponse = itemService.createItem(itemDtoRequest1, ownerDtoResponse.getId());
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        BookingDto booking = bookingService.createBooking(new BookingDtoRequest(itemDtoResponse.getId(),
+                start, start.plusHours(2)), bookerDtoResponse.getId());
+        itemService.getItemAvailability(itemDtoResponse.getId(), start, start.plusHours(4));
+
+        // cancelled by another instance: no event reaches this one
+        bookingRepository.findById(booking.getId()).orElseThrow().setStatus(Status.CANCELLED);
+        ItemAvailabilityDto availability = itemService.getItemAvailability(itemDtoResponse.getId(), start,
+                start.plusHours(4));
+
+        Assertions.assertThat(availability.getBusy()).isEmpty();
+        Assertions.assertThat(availability.getFree()).containsExactly(
+                new AvailabilityIntervalDto(start, start.plusHours(4)));
+    }
+
     @Test
     void testShouldAddCommentToItem() {
         UserDto ownerDtoResponse = userService.createUser(userDtoRequest1);
@@ -252,4 +472,39 @@ public class DbItemServiceImplTest {
             itemService.addComment(commentDtoRequest, itemDtoResponse.getId(), ownerDtoResponse.getId());
         }).isInstanceOf(ValidationException.class);
     }
+
+    @Test
+    void testShouldKeepETagWhileItemIsUnchanged() {
+        UserDto userDtoResponse = userService.createUser(userDtoRequest1);
+        ItemDto itemDtoResponse = itemService.createItem(itemDtoRequest1, userDtoResponse.getId());
+        itemRepository.flush();
+
+        String first = itemService.getItemETag(itemDtoResponse.getId());
+
+        Assertions.assertThat(first).startsWith("\"").endsWith("\"");
+        Assertions.assertThat(itemService.getItemETag(itemDtoResponse.getId())).isEqualTo(first);
+    }
+
+    @Test
+    void testShouldTagNextBookingStart() {
+        UserDto ownerDtoResponse = userService.createUser(userDtoRequest1);
+        UserDto bookerDtoResponse = userService.createUser(userDtoRequest2);
+        ItemDto itemDtoResponse = itemService.createItem(itemDtoRequest1, ownerDtoResponse.getId());
+        itemRepository.flush();
+        String withoutBookings = itemService.getItemETag(itemDtoResponse.getId());
+        LocalDateTime start = LocalDateTime.now().plusHours(1);
+        bookingService.createBooking(new BookingDtoRequest(itemDtoResponse.getId(), start, start.plusHours(1)),
+                bookerDtoResponse.getId());
+
+        String eTag = itemService.getItemETag(itemDtoResponse.getId());
+
+        Assertions.assertThat(eTag).isNotEqualTo(withoutBookings);
+        Assertions.assertThat(eTag).endsWith("-" + start.toEpochSecond(ZoneOffset.UTC) + "\"");
+    }
+
+    @Test
+    void testShouldNotFindETagOfMissingItem() {
+        Assertions.assertThatThrownBy(() -> itemService.getItemETag(1L))
+                .isInstanceOf(NotFoundException.class);
+    }
 }
@@ -8,12 +8,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.item.ItemController;
+import ru.practicum.shareit.item.dto.AvailabilityIntervalDto;
 import ru.practicum.shareit.item.dto.CommentDtoRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
@@ -26,6 +30,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,6 +38,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -77,7 +84,7 @@ public class ItemControllerTest {
         item = new Item(1L, user, "name", "desc", true, null);
 
         commentDtoRequest = new CommentDtoRequest("desc");
-        commentDtoResponse = new CommentDto(1L, "text", item, "name", now);
+        commentDtoResponse = new CommentDto(1L, "text", item.getId(), "name", now);
     }
 
     @Test
@@ -95,6 +102,21 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.available").value(true));
     }
 
+    @Test
+    void testShouldCreateItemsBatch() throws Exception {
+        when(itemService.createItems(any(), anyLong()))
+                .thenReturn(List.of(new ItemBatchResultDto(0, 1L, null),
+                        new ItemBatchResultDto(1, null, "error")));
+        mvc.perform(post("/items/batch")
+                        .content(mapper.writeValueAsString(List.of(itemDtoRequest, itemDtoRequest)))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", userDto.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].index").value(1))
+                .andExpect(jsonPath("$[1].error").value("error"));
+    }
+
     @Test
     void testShouldUpdateItem() throws Exception {
         when(itemService.updateItem(any(), anyLong(), anyLong()))
@@ -111,21 +133,80 @@ public class ItemControllerTest {
                 .andExpect(jsonPath("$.available").value(true));
     }
 
+    @Test
+    void testShouldGetItemAvailability() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(1);
+        when(itemService.getItemAvailability(1L, from, to))
+                .thenReturn(new ItemAvailabilityDto(1L, from, to,
+                        List.of(new AvailabilityIntervalDto(from, from.plusHours(2))),
+                        List.of(new AvailabilityIntervalDto(from.plusHours(2), to))));
+
+        mvc.perform(get("/items/1/availability")
+                        .param("from", from.toString())
+                        .param("to", to.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(1))
+                .andExpect(jsonPath("$.busy.length()").value(1))
+                .andExpect(jsonPath("$.free.length()").value(1));
+    }
+
+    @Test
+    void testShouldSearchItemsFreeInRange() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(itemService.getFreeItemsByText("drill", start, start.plusDays(2), 0, 50))
+                .thenReturn(List.of(itemDtoResponse));
+
+        mvc.perform(get("/items/search")
+                        .param("text", "drill")
+                        .param("start", start.toString())
+                        .param("end", start.plusDays(2).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1));
+    }
+
     @Test
     void testShouldGetItemById() throws Exception {
-        when(itemService.getItemById(anyLong()))
-                .thenReturn(itemDtoResponse);
+        when(itemService.getItemETag(itemDtoResponse.getId())).thenReturn("\"1-1-0\"");
+        when(itemService.getItemById(itemDtoResponse.getId())).thenReturn(itemDtoResponse);
 
         mvc.perform(get("/items/" + itemDtoResponse.getId())
                         .content(mapper.writeValueAsString(itemDtoRequest))
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-1-0\""))
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.name").value("name"))
                 .andExpect(jsonPath("$.available").value(true))
                 .andExpect(jsonPath("$.description").value("desc"));
     }
 
+    @Test
+    void testShouldNotSendUnmodifiedItem() throws Exception {
+        when(itemService.getItemETag(1L)).thenReturn("\"1-1-0\"");
+
+        mvc.perform(get("/items/1")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"0-1-0\", W/\"1-1-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1-1-0\""))
+                .andExpect(content().string(""));
+        verify(itemService, never()).getItemById(1L);
+    }
+
+    @Test
+    void testShouldSendItemForOutdatedOrMalformedTag() throws Exception {
+        when(itemService.getItemETag(1L)).thenReturn("\"1-1-0\"");
+        when(itemService.getItemById(1L)).thenReturn(itemDtoResponse);
+
+        for (String ifNoneMatch : List.of("\"0-1-0\"", "0-1-0", "garbage")) {
+            mvc.perform(get("/items/1")
+                            .header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"1-1-0\""))
+                    .andExpect(jsonPath("$.id").value(1));
+        }
+    }
+
     @Test
     void testShouldGetItemByOwnerId() throws Exception {
         when(itemService.getItemsByOwnerId(anyLong()))
@@ -148,10 +229,10 @@ public class ItemControllerTest {
 
     @Test
     void testShouldGetItemByText() throws Exception {
-        when(itemService.getItemByText(anyString()))
+        when(itemService.getItemByText(anyString(), anyInt(), anyInt()))
                 .thenReturn(List.of(itemDtoResponse));
 
-        mvc.perform(get("/items/search?text=" + anyString())
+        mvc.perform(get("/items/search?text=text")
                         .content(mapper.writeValueAsString(itemDtoRequest))
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -177,7 +258,7 @@ public class ItemControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.text").value("text"))
-                .andExpect(jsonPath("$.item").value(item))
+                .andExpect(jsonPath("$.itemId").value(item.getId()))
                 .andExpect(jsonPath("$.authorName").value("name"));
     }
 
@@ -0,0 +1,149 @@
+package item;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.BookingImportResultDto;
+import ru.practicum.shareit.booking.service.BookingImportService;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.CommentDtoRequest;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemRevisions;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Revisions are raised when a transaction commits, so these tests commit their changes and remove them
+ * with the users afterwards.
+ */
+@SpringBootTest(classes = ShareItServer.class)
+@ActiveProfiles("test")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ItemRevisionsTest {
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    BookingService bookingService;
+
+    @Autowired
+    BookingImportService bookingImportService;
+
+    @Autowired
+    ItemRevisions itemRevisions;
+
+    @SpyBean
+    JdbcTemplate jdbcTemplate;
+
+    UserDto owner;
+    UserDto booker;
+
+    @BeforeEach
+    void createUsers() {
+        owner = userService.createUser(new UserDto(null, "owner", "revisions-owner@test.com"));
+        booker = userService.createUser(new UserDto(null, "booker", "revisions-booker@test.com"));
+    }
+
+    @AfterEach
+    void deleteUsers() {
+        userService.deleteUser(booker.getId());
+        userService.deleteUser(owner.getId());
+    }
+
+    @Test
+    void testShouldChangeETagWhenItemBookingsOrCommentsChange() {
+        ItemDto itemDtoResponse = itemService.createItem(new ItemDtoRequest("drill", "drill", true, null),
+                owner.getId());
+        List<String> eTags = new ArrayList<>();
+        eTags.add(itemService.getItemETag(itemDtoResponse.getId()));
+
+        itemService.updateItem(new ItemDtoRequest("renamed", null, null, null), itemDtoResponse.getId(),
+                owner.getId());
+        eTags.add(itemService.getItemETag(itemDtoResponse.getId()));
+        BookingDto booking = bookingService.createBooking(new BookingDtoRequest(itemDtoResponse.getId(),
+                LocalDateTime.now().minusHours(2), LocalDateTime.now().minusHours(1)), booker.getId());
+        eTags.add(itemService.getItemETag(itemDtoResponse.getId()));
+        bookingService.approveBooking(booking.getId(), true, owner.getId());
+        eTags.add(itemService.getItemETag(itemDtoResponse.getId()));
+        itemService.addComment(new CommentDtoRequest("comment"), itemDtoResponse.getId(), booker.getId());
+        eTags.add(itemService.getItemETag(itemDtoResponse.getId()));
+        userService.updateUser(new UserDto(null, "renamed", null), booker.getId());
+        String afterRename = itemService.getItemETag(itemDtoResponse.getId());
+
+        Assertions.assertThat(eTags).doesNotHaveDuplicates();
+        Assertions.assertThat(eTags).doesNotContain(afterRename);
+    }
+
+    @Test
+    void testShouldCreateItemsBatchWithoutRevisionStatements() {
+        List<ItemDtoRequest> batch = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            batch.add(new ItemDtoRequest("batch" + i, "batch description", true, null));
+        }
+        Mockito.clearInvocations(jdbcTemplate);
+
+        List<ItemBatchResultDto> results = itemService.createItems(batch, owner.getId());
+
+        Assertions.assertThat(revisionStatements()).isZero();
+        Assertions.assertThat(results).allSatisfy(result ->
+                Assertions.assertThat(itemRevisions.findRevision(result.getId())).contains(0L));
+    }
+
+    @Test
+    void testShouldRaiseRevisionsOfImportedBookingsWithOneStatement() {
+        ItemDto item1 = itemService.createItem(new ItemDtoRequest("drill", "drill", true, null), owner.getId());
+        ItemDto item2 = itemService.createItem(new ItemDtoRequest("saw", "saw", true, null), owner.getId());
+        String line = "{\"itemId\":%d,\"bookerId\":%d,\"start\":\"%s\",\"end\":\"%s\",\"status\":\"APPROVED\"}";
+        LocalDateTime start = LocalDateTime.now().minusDays(30).truncatedTo(ChronoUnit.SECONDS);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ItemDto item = i % 2 == 0 ? item1 : item2;
+            lines.add(line.formatted(item.getId(), booker.getId(), start.plusDays(i), start.plusDays(i).plusHours(1)));
+        }
+        Mockito.clearInvocations(jdbcTemplate);
+
+        BookingImportResultDto result = bookingImportService.importBookings(
+                new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8)));
+
+        Assertions.assertThat(result.getImported()).isEqualTo(10);
+        Assertions.assertThat(revisionStatements()).isEqualTo(1);
+        Assertions.assertThat(itemRevisions.findRevision(item1.getId())).contains(1L);
+        Assertions.assertThat(itemRevisions.findRevision(item2.getId())).contains(1L);
+    }
+
+    // the spy also records the calls JdbcTemplate makes on itself, only the public varargs update is counted
+    private long revisionStatements() {
+        return Mockito.mockingDetails(jdbcTemplate).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("update")
+                        && invocation.getMethod().isVarArgs()
+                        && invocation.getArgument(0) instanceof String sql
+                        && sql.startsWith("UPDATE items SET revision"))
+                .count();
+    }
+}
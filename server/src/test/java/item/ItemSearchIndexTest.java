@@ -0,0 +1,84 @@
+package item;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchDocument;
+import ru.practicum.shareit.item.event.ItemDeletedEvent;
+import ru.practicum.shareit.item.event.ItemSavedEvent;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchIndex;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ItemSearchIndexTest {
+
+    @Mock
+    ItemRepository itemRepository;
+
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(itemRepository.findSearchDocumentsByIdGreaterThan(anyLong(), any()))
+                .thenReturn(List.of(
+                        new ItemSearchDocument(1L, 1L, "Отвертка", "Крестовая отвертка для дрели", true),
+                        new ItemSearchDocument(2L, 1L, "Дрель", "Аккумуляторная дрель", true),
+                        new ItemSearchDocument(3L, 2L, "Дрель ударная", "Сетевая", false),
+                        new ItemSearchDocument(4L, 2L, "Пила", "Дисковая пила", true)));
+        index = new ItemSearchIndex(itemRepository, false);
+        index.rebuild();
+    }
+
+    @Test
+    void testShouldSearchRankedLikeDatabase() {
+        Assertions.assertThat(index.isReady()).isTrue();
+        Assertions.assertThat(index.search(List.of("дрел"), 0, 10))
+                .extracting(ItemDto::getId)
+                .containsExactly(2L, 1L);
+        Assertions.assertThat(index.search(List.of("от", "дрел"), 0, 10))
+                .extracting(ItemDto::getId)
+                .containsExactly(1L);
+        Assertions.assertThat(index.search(List.of("дрел"), 1, 10))
+                .extracting(ItemDto::getId)
+                .containsExactly(1L);
+        Assertions.assertThat(index.search(List.of("молоток"), 0, 10)).isEmpty();
+    }
+
+    @Test
+    void testShouldFollowItemChanges() {
+        index.onItemSaved(new ItemSavedEvent(new ItemSearchDocument(3L, 2L, "Дрель ударная", "Сетевая", true),
+                true));
+        index.onItemSaved(new ItemSavedEvent(new ItemSearchDocument(2L, 1L, "Шуруповерт", "Аккумуляторный",
+                true), false));
+        index.onItemDeleted(new ItemDeletedEvent(1L));
+
+        Assertions.assertThat(index.search(List.of("дрел"), 0, 10))
+                .extracting(ItemDto::getId)
+                .containsExactly(3L);
+        Assertions.assertThat(index.search(List.of("шуруп"), 0, 10))
+                .extracting(ItemDto::getName)
+                .containsExactly("Шуруповерт");
+        Assertions.assertThat(index.search(List.of("ш"), 0, 10))
+                .extracting(ItemDto::getId)
+                .containsExactly(2L);
+    }
+
+    @Test
+    void testShouldDropItemsOfDeletedUser() {
+        index.onUserDeleted(new UserDeletedEvent(2L));
+
+        Assertions.assertThat(index.search(List.of("пил"), 0, 10)).isEmpty();
+        Assertions.assertThat(index.search(List.of("дрел"), 0, 10)).hasSize(2);
+    }
+}
@@ -0,0 +1,67 @@
+package item;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.storage.ItemSearchRepository;
+import ru.practicum.shareit.item.storage.LikeItemSearchRepository;
+import ru.practicum.shareit.item.storage.TrigramItemSearchRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+
+// The free-item search compares tsrange values and runs on PostgreSQL only.
+@SpringBootTest(classes = ShareItServer.class, properties = "shareit.search.mode=trigram")
+@ActiveProfiles("test")
+@Transactional
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class TrigramItemSearchRepositoryTest {
+
+    @Autowired
+    ItemSearchRepository itemSearchRepository;
+
+    @Autowired
+    LikeItemSearchRepository likeItemSearchRepository;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    UserService userService;
+
+    @Test
+    void testShouldMatchSubstringsRankedLikeLikeSearch() {
+        UserDto owner = userService.createUser(new UserDto(null, "owner", "owner@test.com"));
+        ItemDto descriptionMatch = itemService.createItem(new ItemDtoRequest("Bit", "fits any drill", true, null),
+                owner.getId());
+        ItemDto nameMatch = itemService.createItem(new ItemDtoRequest("Hammer drill", "heavy", true, null),
+                owner.getId());
+        itemService.createItem(new ItemDtoRequest("Drill", "broken", false, null), owner.getId());
+
+        List<Item> found = itemSearchRepository.searchAvailable(List.of("rill"), 0, 10);
+
+        Assertions.assertThat(itemSearchRepository).isInstanceOf(TrigramItemSearchRepository.class);
+        Assertions.assertThat(found).extracting(Item::getId)
+                .containsExactly(nameMatch.getId(), descriptionMatch.getId());
+        for (List<String> tokens : List.of(List.of("rill"), List.of("dri", "hea"), List.of("it"), List.of("saw"))) {
+            Assertions.assertThat(itemSearchRepository.searchAvailable(tokens, 0, 10))
+                    .extracting(Item::getId)
+                    .containsExactlyElementsOf(likeItemSearchRepository.searchAvailable(tokens, 0, 10).stream()
+                            .map(Item::getId)
+                            .toList());
+        }
+        Assertions.assertThat(itemSearchRepository.searchAvailable(List.of("rill"), 1, 1)).extracting(Item::getId)
+                .containsExactly(descriptionMatch.getId());
+    }
+}
@@ -1,5 +1,6 @@
 package request;
 
+import jakarta.persistence.EntityManager;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import lombok.extern.slf4j.Slf4j;
@@ -12,6 +13,11 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.ShareItServer;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.dto.ItemDtoRequestId;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.dto.PageDto;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -33,6 +39,12 @@ public class DbItemRequestServiceImplTest {
     @Autowired
     ItemRequestService itemRequestService;
 
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    EntityManager entityManager;
+
     static UserDto userDtoRequest1;
     static UserDto userDtoRequest2;
     static ItemRequestDtoRequest itemRequestDtoRequest;
@@ -89,11 +101,36 @@ public class DbItemRequestServiceImplTest {
         itemRequestService.createRequest(itemRequestDtoRequest, userDtoResponse2.getId());
         itemRequestService.createRequest(itemRequestDtoRequest, userDtoResponse2.getId());
 
-        List<ItemRequestDto> requests = itemRequestService.getAllRequest(userDtoResponse2.getId());
+        List<ItemRequestDto> requests = itemRequestService.getAllRequest(userDtoResponse2.getId(), null, 10)
+                .getItems();
 
         Assertions.assertThat(requests.size()).isEqualTo(2);
     }
 
+    @Test
+    void testShouldGetAllRequestsPageByPageWithItems() {
+        UserDto userDtoResponse1 = userService.createUser(userDtoRequest1);
+        UserDto userDtoResponse2 = userService.createUser(userDtoRequest2);
+        ItemRequestDto request1 = itemRequestService.createRequest(itemRequestDtoRequest, userDtoResponse1.getId());
+        ItemRequestDto request2 = itemRequestService.createRequest(itemRequestDtoRequest, userDtoResponse1.getId());
+        ItemDto itemDto = itemService.createItem(new ItemDtoRequest("name", "description", true,
+                request1.getId()), userDtoResponse2.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        PageDto<ItemRequestDto> firstPage = itemRequestService.getAllRequest(userDtoResponse2.getId(), null, 1);
+        PageDto<ItemRequestDto> secondPage = itemRequestService.getAllRequest(userDtoResponse2.getId(),
+                firstPage.getNextCursor(), 1);
+
+        Assertions.assertThat(firstPage.getItems().getFirst().getId()).isEqualTo(request2.getId());
+        Assertions.assertThat(firstPage.getItems().getFirst().getItems()).isEmpty();
+        Assertions.assertThat(secondPage.getItems().getFirst().getId()).isEqualTo(request1.getId());
+        Assertions.assertThat(secondPage.getItems().getFirst().getItems())
+                .extracting(ItemDtoRequestId::getId)
+                .containsExactly(itemDto.getId());
+        Assertions.assertThat(secondPage.getNextCursor()).isNull();
+    }
+
     @Test
     void testShouldGetRequestById() {
         UserDto userDtoResponse = userService.createUser(userDtoRequest1);
@@ -12,6 +12,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.item.dto.ItemDtoRequestId;
+import ru.practicum.shareit.pagination.dto.PageDto;
 import ru.practicum.shareit.request.ItemRequestController;
 import ru.practicum.shareit.request.dto.ItemRequestDtoRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -21,10 +22,12 @@ import ru.practicum.shareit.user.dto.UserDto;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -87,13 +90,14 @@ public class ItemRequestControllerTest {
 
     @Test
     void testShouldGetAllRequests() throws Exception {
-        when(requestService.getAllRequest(anyLong()))
-                .thenReturn(List.of(dtoResponse));
+        when(requestService.getAllRequest(anyLong(), any(), anyInt()))
+                .thenReturn(new PageDto<>(List.of(dtoResponse), "next"));
 
         mvc.perform(get("/requests/all")
                         .contentType(MediaType.APPLICATION_JSON)
                         .header("X-Sharer-User-Id", userDto.getId()))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "next"))
                 .andExpect((result -> {
                     String json = result.getResponse().getContentAsString();
                     List<ItemRequestDto> dtos = mapper.readValue(json, new TypeReference<>() {
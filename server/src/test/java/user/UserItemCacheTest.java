@@ -0,0 +1,67 @@
+package user;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.config.CacheConfig;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+// Not transactional: cache eviction happens after commit.
+@SpringBootTest(classes = ShareItServer.class, properties = "spring.cache.type=caffeine")
+@ActiveProfiles("test")
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UserItemCacheTest {
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    ItemService itemService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void testShouldCacheUsersAndItemsUntilChanged() {
+        UserDto user = userService.createUser(new UserDto(null, "cached", "cached@test.com"));
+        ItemDto item = itemService.createItem(new ItemDtoRequest("cached", "cached item", true, null),
+                user.getId());
+        try {
+            userService.getUserById(user.getId());
+            userService.getUserById(user.getId());
+            itemService.getItemById(item.getId());
+
+            Assertions.assertThat(cacheManager.getCache(CacheConfig.USERS_CACHE).get(user.getId())).isNotNull();
+            Assertions.assertThat(cacheManager.getCache(CacheConfig.ITEMS_CACHE).get(item.getId())).isNotNull();
+            Assertions.assertThat(meterRegistry.get("cache.gets").tag("cache", CacheConfig.USERS_CACHE)
+                    .tag("result", "hit").functionCounter().count()).isPositive();
+
+            userService.updateUser(new UserDto(null, "renamed", null), user.getId());
+            itemService.updateItem(new ItemDtoRequest("renamed", null, null, null), item.getId(), user.getId());
+
+            Assertions.assertThat(userService.getUserById(user.getId()).getName()).isEqualTo("renamed");
+            Assertions.assertThat(itemService.getItemById(item.getId()).getName()).isEqualTo("renamed");
+        } finally {
+            userService.deleteUser(user.getId());
+        }
+
+        Assertions.assertThatThrownBy(() -> userService.getUserById(user.getId()))
+                .isInstanceOf(NotFoundException.class);
+        Assertions.assertThat(cacheManager.getCache(CacheConfig.ITEMS_CACHE).get(item.getId())).isNull();
+    }
+}
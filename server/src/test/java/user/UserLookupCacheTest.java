@@ -0,0 +1,87 @@
+package user;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.storage.UserLookupCache;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class UserLookupCacheTest {
+
+    @Mock
+    UserRepository userRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserLookupCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new UserLookupCache(userRepository, new NoOpCacheManager(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void testShouldLoadUserOncePerRequest() {
+        User user = new User(1L, "name", "email@mail.com");
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        ServletRequestAttributes attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(attributes);
+
+        Assertions.assertThat(cache.findById(1L)).contains(user);
+        Assertions.assertThat(cache.findById(1L)).contains(user);
+        Assertions.assertThat(cache.existsById(1L)).isTrue();
+        attributes.requestCompleted();
+
+        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, never()).existsById(1L);
+        Assertions.assertThat(meterRegistry.get("shareit.user.lookups").tag("result", "hit").counter().count())
+                .isEqualTo(2);
+        Assertions.assertThat(meterRegistry.get("shareit.user.lookups.saved").summary().totalAmount())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void testShouldCheckExistenceWithoutLoadingUser() {
+        when(userRepository.existsById(2L)).thenReturn(true);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        Assertions.assertThat(cache.existsById(2L)).isTrue();
+        Assertions.assertThat(cache.existsById(2L)).isTrue();
+
+        verify(userRepository, times(1)).existsById(2L);
+        verify(userRepository, never()).findById(2L);
+    }
+
+    @Test
+    void testShouldNotCacheOutsideRequest() {
+        when(userRepository.existsById(3L)).thenReturn(true);
+
+        cache.existsById(3L);
+        cache.existsById(3L);
+
+        verify(userRepository, times(2)).existsById(3L);
+    }
+}
@@ -1,44 +0,0 @@
-DROP TABLE IF EXISTS users CASCADE;
-DROP TABLE IF EXISTS requests CASCADE;
-DROP TABLE IF EXISTS items CASCADE;
-DROP TABLE IF EXISTS bookings CASCADE;
-DROP TABLE IF EXISTS comments CASCADE;
-
-CREATE TABLE IF NOT EXISTS users (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    name VARCHAR(50) NOT NULL,
-    email VARCHAR(100) NOT NULL UNIQUE
-);
-
-CREATE TABLE IF NOT EXISTS requests (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    description VARCHAR NOT NULL,
-    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-    requestor_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE
-);
-
-CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    name VARCHAR(50) NOT NULL,
-    description VARCHAR(255) NOT NULL,
-    is_available BOOLEAN NOT NULL,
-    owner_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
-    request_id BIGINT REFERENCES requests (id) ON DELETE CASCADE
-);
-
-CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
-    item_id BIGINT NOT NULL REFERENCES items (id) ON DELETE CASCADE,
-    booker_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
-    status VARCHAR NOT NULL CHECK (status IN ('WAITING', 'APPROVED', 'REJECTED','CANCELLED'))
-);
-
-CREATE TABLE IF NOT EXISTS comments (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    text VARCHAR NOT NULL,
-    author_id BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
-    item_id BIGINT NOT NULL REFERENCES items (id) ON DELETE CASCADE,
-    created TIMESTAMP WITHOUT TIME ZONE NOT NULL
-);
\ No newline at end of file